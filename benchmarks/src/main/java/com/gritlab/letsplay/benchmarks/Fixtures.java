@@ -0,0 +1,41 @@
+package com.gritlab.letsplay.benchmarks;
+
+import com.gritlab.letsplay.model.Product;
+import com.gritlab.letsplay.model.User;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Realistic entities shared by the benchmarks (sizes close to what the API validation allows).
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static User user(String role) {
+        User user = new User();
+        user.setId(new ObjectId().toHexString());
+        user.setName("Benchmark User");
+        user.setEmail("bench.user@example.com");
+        user.setPassword("$2a$10$m00kZq94dn6NvDx.KxJYROQi1p/lRG92uXX6M7JTOg6yUlB5c9INK");
+        user.setRole(role);
+        return user;
+    }
+
+    static List<Product> products(int count) {
+        String ownerId = new ObjectId().toHexString();
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setId(new ObjectId().toHexString());
+            product.setName("Product " + i);
+            product.setDescription("A sturdy, well-made item for everyday play. Variant number " + i + ".");
+            product.setPrice(1 + (i % 10_000) / 100.0);
+            product.setUserId(ownerId);
+            product.setVersion((long) (i % 5));
+            products.add(product);
+        }
+        return products;
+    }
+}
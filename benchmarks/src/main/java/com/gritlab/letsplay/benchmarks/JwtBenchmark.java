@@ -0,0 +1,86 @@
+package com.gritlab.letsplay.benchmarks;
+
+import com.gritlab.letsplay.model.User;
+import com.gritlab.letsplay.security.JwtAuthenticationFilter;
+import com.gritlab.letsplay.security.JwtKeyRing;
+import com.gritlab.letsplay.security.JwtTokenIssuer;
+import com.gritlab.letsplay.security.JwtTokenVerifier;
+import com.gritlab.letsplay.security.TokenRevocations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token minting (POST /users/login) and verification (JwtAuthenticationFilter on every authenticated request).
+ * "uncached" uses a verifier with a zero-size cache, so every call parses and checks the ES256 signature;
+ * "cached" is the steady state where clients reuse their token.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtTokenIssuer issuer;
+    private JwtTokenVerifier cachedVerifier;
+    private JwtTokenVerifier uncachedVerifier;
+    private JwtAuthenticationFilter filter;
+    private User user;
+    private String token;
+    private final FilterChain noOpChain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing(Base64.getEncoder().encodeToString(new byte[32]));
+        Instant now = Instant.now();
+        keyRing.load(List.of(keyRing.generateKey(now, now.plus(Duration.ofDays(1)))));
+
+        issuer = new JwtTokenIssuer(keyRing, Duration.ofMinutes(15));
+        TokenRevocations revocations = new TokenRevocations();
+        cachedVerifier = new JwtTokenVerifier(keyRing, 10_000, revocations, new SimpleMeterRegistry());
+        uncachedVerifier = new JwtTokenVerifier(keyRing, 0, revocations, new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(cachedVerifier);
+        user = Fixtures.user("user");
+        token = issuer.issue(user);
+    }
+
+    @Benchmark
+    public String issueToken() {
+        return issuer.issue(user);
+    }
+
+    @Benchmark
+    public Authentication verifyUncached() {
+        return uncachedVerifier.verify(token);
+    }
+
+    @Benchmark
+    public Authentication verifyCached() {
+        return cachedVerifier.verify(token);
+    }
+
+    // Whole filter pass for an authenticated request, including the public-path check and SecurityContext update.
+    @Benchmark
+    public Authentication filterAuthenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), noOpChain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.gritlab.letsplay.benchmarks;
+
+import com.gritlab.letsplay.model.Product;
+import com.gritlab.letsplay.model.ProductDTO;
+import com.gritlab.letsplay.model.User;
+import com.gritlab.letsplay.model.UserDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity -> DTO mapping done for every product and user returned by the API.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private Product product;
+    private User user;
+    private List<Product> page;
+
+    @Setup
+    public void setUp() {
+        product = Fixtures.products(1).get(0);
+        user = Fixtures.user("user");
+        page = Fixtures.products(50);
+    }
+
+    @Benchmark
+    public ProductDTO productToDto() {
+        return ProductDTO.from(product);
+    }
+
+    @Benchmark
+    public UserDTO userToDto() {
+        return UserDTO.from(user);
+    }
+
+    // One default-sized page (GET /products/page)
+    @Benchmark
+    public List<ProductDTO> productPageToDtos() {
+        return page.stream().map(ProductDTO::from).toList();
+    }
+}
@@ -0,0 +1,76 @@
+package com.gritlab.letsplay.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gritlab.letsplay.model.Product;
+import com.gritlab.letsplay.model.ProductDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON encoding of product listings at catalog sizes of 1k, 100k and 1M.
+ * "materialized" maps the whole list and writes it in one call (the old GET /products);
+ * "streamed" writes one DTO at a time through a JsonGenerator, as ProductController.getAllProducts does.
+ * Output goes to a counting stream so only mapping and encoding are measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures for the application
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        products = Fixtures.products(size);
+    }
+
+    @Benchmark
+    public long materialized() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        List<ProductDTO> dtos = products.stream().map(ProductDTO::from).toList();
+        objectMapper.writeValue(out, dtos);
+        return out.count;
+    }
+
+    @Benchmark
+    public long streamed() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (Product product : products) {
+                generator.writeObject(ProductDTO.from(product));
+            }
+            generator.writeEndArray();
+        }
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.gritlab.letsplay.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gritlab.letsplay.event.ProductChangedEvent;
+import com.gritlab.letsplay.model.Product;
+import com.gritlab.letsplay.model.ProductDTO;
+import com.gritlab.letsplay.repository.ProductFilter;
+import com.gritlab.letsplay.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The unfiltered GET /products response, pre-serialized and gzip-compressed in memory (catalog.snapshot.enabled=true).
+ *
+ * Each product's JSON is kept by id and only changed products are reloaded (one $in query per batch of changes),
+ * then the array is reassembled and compressed in the background, at most every 200 ms.
+ * A snapshot is only served while it includes every product change this node has seen; while a rebuild is pending,
+ * requests fall back to the streamed response.
+ * Changes made through another instance (including cleanup jobs running there) raise no event here, so the whole
+ * catalog is also reloaded every catalog.snapshot.reload-interval: with several nodes, the snapshot can lag
+ * writes made elsewhere by up to that interval. Single-node deployments see every change immediately.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.snapshot.enabled", havingValue = "true")
+public class CatalogSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshot.class);
+    private static final ProductFilter UNFILTERED = new ProductFilter(null, null, null, null, null);
+
+    public record Snapshot(byte[] gzip, long changes) {
+    }
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration reloadInterval;
+
+    // product id -> serialized ProductDTO, in _id order (ObjectId hex strings sort like ObjectIds); builder thread only
+    private TreeMap<String, byte[]> entries = new TreeMap<>();
+    private final Set<String> pendingIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong changes = new AtomicLong();
+    private volatile Snapshot current;
+
+    private final ScheduledExecutorService builder = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CatalogSnapshot(ProductRepository productRepository, ObjectMapper objectMapper,
+                           @Value("${catalog.snapshot.reload-interval:30s}") Duration reloadInterval) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.reloadInterval = reloadInterval;
+    }
+
+    // -------------------------- Maintenance ------------------------------------------------- //
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        builder.execute(this::load);
+        builder.scheduleWithFixedDelay(this::applyPendingChanges, 200, 200, TimeUnit.MILLISECONDS);
+        // Picks up writes made through other instances, which raise no ProductChangedEvent here.
+        builder.scheduleWithFixedDelay(this::load, reloadInterval.toMillis(), reloadInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        builder.shutdownNow();
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        // The id is recorded before the change is counted, so a snapshot covering "changes" includes it.
+        pendingIds.add(event.productId());
+        changes.incrementAndGet();
+    }
+
+    // The snapshot, if it is up to date with every product change.
+    public Optional<Snapshot> current() {
+        Snapshot snapshot = current;
+        return (snapshot != null && snapshot.changes() == changes.get()) ? Optional.of(snapshot) : Optional.empty();
+    }
+
+    private void load() {
+        try {
+            long seen = changes.get();
+            // Loaded aside and swapped in whole: a failed reload leaves the previous entries intact.
+            TreeMap<String, byte[]> loaded = new TreeMap<>();
+            try (Stream<Product> products = productRepository.streamFiltered(UNFILTERED)) {
+                products.forEach(product -> loaded.put(product.getId(), serialize(product)));
+            }
+            entries = loaded;
+            publish(seen);
+        } catch (Exception e) {
+            log.atWarn().setCause(e).log("Catalog snapshot load failed");
+        }
+    }
+
+    private void applyPendingChanges() {
+        if (current == null) {
+            load();  // the first load failed: retry it
+            return;
+        }
+        if (pendingIds.isEmpty()) {
+            return;
+        }
+        long seen = changes.get();
+        Set<String> ids = new HashSet<>();
+        // Removed one by one: an id changed again meanwhile is re-added and picked up next time.
+        for (String id : pendingIds) {
+            pendingIds.remove(id);
+            ids.add(id);
+        }
+        try {
+            Set<String> missing = new HashSet<>(ids);
+            for (Product product : productRepository.findAllById(ids)) {
+                entries.put(product.getId(), serialize(product));
+                missing.remove(product.getId());
+            }
+            missing.forEach(entries::remove);
+            publish(seen);
+        } catch (Exception e) {
+            pendingIds.addAll(ids);  // retried on the next run; until then the snapshot is not served
+            log.atWarn().setCause(e).log("Catalog snapshot update failed");
+        }
+    }
+
+    private void publish(long seen) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed, 64 * 1024)) {
+            out.write('[');
+            boolean first = true;
+            for (byte[] entry : entries.values()) {
+                if (!first) {
+                    out.write(',');
+                }
+                out.write(entry);
+                first = false;
+            }
+            out.write(']');
+        }
+        current = new Snapshot(compressed.toByteArray(), seen);
+        log.atDebug().addKeyValue("products", entries.size())
+                .addKeyValue("gzipBytes", current.gzip().length).log("Catalog snapshot rebuilt");
+    }
+
+    private byte[] serialize(Product product) {
+        try {
+            return objectMapper.writeValueAsBytes(ProductDTO.from(product));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
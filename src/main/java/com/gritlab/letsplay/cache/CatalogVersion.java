@@ -0,0 +1,28 @@
+package com.gritlab.letsplay.cache;
+
+import com.gritlab.letsplay.event.ProductChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the whole product catalog, bumped on every product write.
+ * Lets GET /products answer If-None-Match without querying the products collection.
+ * Seeded with the boot time, so a restarted process never reuses an ETag of the previous one.
+ */
+@Component
+public class CatalogVersion {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong counter = new AtomicLong();
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        counter.incrementAndGet();
+    }
+
+    public String etag() {
+        return "catalog-" + epoch + "-" + counter.get();
+    }
+}
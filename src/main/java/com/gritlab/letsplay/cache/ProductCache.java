@@ -0,0 +1,51 @@
+package com.gritlab.letsplay.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gritlab.letsplay.event.ProductChangedEvent;
+import com.gritlab.letsplay.model.Product;
+import com.gritlab.letsplay.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through cache in front of ProductRepository.findById.
+ * Size-bounded (W-TinyLFU eviction) with a TTL as a safety net; every product write
+ * invalidates its entry through {@link ProductChangedEvent}.
+ * Cached products are shared between requests: read them, never mutate them.
+ */
+@Component
+public class ProductCache {
+
+    private final ProductRepository productRepository;
+    private final Cache<String, Product> products;
+
+    public ProductCache(ProductRepository productRepository,
+                        @Value("${cache.products.max-size:10000}") long maxSize,
+                        @Value("${cache.products.ttl:10m}") Duration ttl) {
+        this.productRepository = productRepository;
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Loads from MongoDB on a miss; unknown ids are not cached.
+    public Optional<Product> findById(String id) {
+        return Optional.ofNullable(products.get(id, key -> productRepository.findById(key).orElse(null)));
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        products.invalidate(event.productId());
+    }
+
+    public Cache<String, Product> getCache() {
+        return products;
+    }
+}
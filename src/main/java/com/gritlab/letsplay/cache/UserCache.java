@@ -0,0 +1,63 @@
+package com.gritlab.letsplay.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gritlab.letsplay.model.User;
+import com.gritlab.letsplay.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-evicted cache of users by id.
+ * Cached users are shared between requests: read them, never mutate them.
+ * Callers that change or delete a user must call {@link #invalidate(String)}.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> users;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${cache.users.max-size:10000}") long maxSize,
+                     @Value("${cache.users.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Loads from MongoDB on a miss; unknown ids are not cached, so a deleted user is never served.
+    public Optional<User> findById(String id) {
+        return Optional.ofNullable(users.get(id, key -> userRepository.findById(key).orElse(null)));
+    }
+
+    // Resolves many users at once: hits come from the cache, all misses are loaded with a single $in query.
+    // Unknown ids are missing from the result (and not cached).
+    public Map<String, User> getAll(Collection<String> ids) {
+        return users.getAll(ids, missing -> {
+            List<String> missingIds = new ArrayList<>(missing);
+            Map<String, User> loaded = new HashMap<>();
+            userRepository.findAllById(missingIds).forEach(user -> loaded.put(user.getId(), user));
+            return loaded;
+        });
+    }
+
+    public void invalidate(String id) {
+        users.invalidate(id);
+    }
+
+    public Cache<String, User> getCache() {
+        return users;
+    }
+}
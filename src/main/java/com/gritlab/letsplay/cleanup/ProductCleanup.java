@@ -0,0 +1,268 @@
+package com.gritlab.letsplay.cleanup;
+
+import com.gritlab.letsplay.event.ProductChangedEvent;
+import com.gritlab.letsplay.model.Product;
+import com.gritlab.letsplay.model.ProductCleanupJob;
+import com.gritlab.letsplay.model.ProductCleanupJob.Action;
+import com.gritlab.letsplay.model.ProductCleanupJob.Status;
+import com.gritlab.letsplay.model.User;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes (or reassigns) the products of a deleted user off the request thread.
+ *
+ * The job is recorded (PENDING) before the user is deleted, so a crash in between never leaves products without a job;
+ * a job whose user still exists waits, and is given up if the user is still there after USER_DELETE_GRACE.
+ * Every instance polls for due jobs and claims one at a time with findAndModify (RUNNING + a lease it renews after
+ * every batch), so a job runs on one instance only; a lease that expires (crash, shutdown) lets another instance resume.
+ * The user's products are processed in batches: ids are read from the userId index (batch-size at a time), then deleted
+ * or reassigned with one $in write. Every batch is idempotent (it only touches products still owned by the user).
+ * A failed run is marked FAILED and retried with exponential backoff, up to cleanup.products.max-attempts runs.
+ */
+@Component
+public class ProductCleanup {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCleanup.class);
+    private static final Duration USER_DELETE_GRACE = Duration.ofMinutes(5);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofHours(1);
+    // Stored on the job instead of the exception message, which may name collections, hosts or values
+    private static final String RUN_FAILED = "The cleanup run failed; see the server logs.";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration pollInterval;
+    private final Duration retryDelay;
+    private final int maxAttempts;
+
+    // Lease owner id of this instance
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // One worker: cleanups run one after another and never compete with each other for the products collection.
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "product-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductCleanup(MongoTemplate mongoTemplate,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${cleanup.products.batch-size:500}") int batchSize,
+                          @Value("${cleanup.products.lease:2m}") Duration lease,
+                          @Value("${cleanup.products.poll-interval:15s}") Duration pollInterval,
+                          @Value("${cleanup.products.retry-delay:30s}") Duration retryDelay,
+                          @Value("${cleanup.products.max-attempts:10}") int maxAttempts) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.pollInterval = pollInterval;
+        this.retryDelay = retryDelay;
+        this.maxAttempts = maxAttempts;
+    }
+
+    // -------------------------- Jobs ------------------------------------------------- //
+    // Records a job deleting all products of the user; call it before deleting the user, then start().
+    public ProductCleanupJob deleteProductsOf(String userId) {
+        return enqueue(userId, Action.DELETE, null);
+    }
+
+    // Records a job moving all products of the user to another (existing) user; same order as deleteProductsOf.
+    public ProductCleanupJob reassignProductsOf(String userId, String newOwnerId) {
+        return enqueue(userId, Action.REASSIGN, newOwnerId);
+    }
+
+    // Runs due jobs now instead of at the next poll (e.g. right after the user is deleted).
+    public void start() {
+        worker.execute(this::drain);
+    }
+
+    public Optional<ProductCleanupJob> findJob(String jobId) {
+        return Optional.ofNullable(mongoTemplate.findById(jobId, ProductCleanupJob.class));
+    }
+
+    private ProductCleanupJob enqueue(String userId, Action action, String reassignTo) {
+        Instant now = Instant.now();
+        ProductCleanupJob job = new ProductCleanupJob();
+        job.setUserId(userId);
+        job.setAction(action);
+        job.setReassignTo(reassignTo);
+        job.setStatus(Status.PENDING);
+        job.setNextAttemptAt(now);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        return mongoTemplate.insert(job);
+    }
+
+    // Jobs interrupted by a shutdown or a crash, or due for a retry, are picked up by the poll on any instance.
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        worker.scheduleWithFixedDelay(this::drain, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdownNow();
+    }
+
+    // -------------------------- Worker ------------------------------------------------- //
+    // Must not throw: a scheduled task that throws is never run again.
+    private void drain() {
+        try {
+            ProductCleanupJob job;
+            while (!Thread.currentThread().isInterrupted() && (job = claim()) != null) {
+                run(job);
+            }
+        } catch (Exception e) {
+            log.atWarn().setCause(e).log("Product cleanup poll failed");
+        }
+    }
+
+    // Atomically takes one due job: PENDING or FAILED with its attempt time reached, or RUNNING with an expired lease.
+    private ProductCleanupJob claim() {
+        Instant now = Instant.now();
+        Criteria due = new Criteria().orOperator(
+                Criteria.where("status").in(Status.PENDING, Status.FAILED).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(Status.RUNNING).and("leaseExpiresAt").lt(now));
+        Update take = new Update()
+                .set("status", Status.RUNNING)
+                .set("leaseOwner", instanceId)
+                .set("leaseExpiresAt", now.plus(lease))
+                .set("updatedAt", now);
+        return mongoTemplate.findAndModify(new Query(due).with(Sort.by("createdAt")), take,
+                FindAndModifyOptions.options().returnNew(true), ProductCleanupJob.class);
+    }
+
+    private void run(ProductCleanupJob job) {
+        String jobId = job.getId();
+        Criteria owned = Criteria.where("userId").is(job.getUserId());
+        try {
+            if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(job.getUserId())), User.class)) {
+                waitForUserDelete(job);
+                return;
+            }
+            if (job.getTotal() == 0 && job.getProcessed() == 0) {
+                long total = mongoTemplate.count(new Query(owned), Product.class);
+                renewLease(jobId, new Update().set("total", total));
+            }
+
+            while (!Thread.currentThread().isInterrupted()) {
+                Query batch = new Query(owned).limit(batchSize);
+                batch.fields().include("_id");
+                List<String> ids = mongoTemplate.find(batch, Product.class).stream().map(Product::getId).toList();
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                // Re-checks the owner, so products reassigned meanwhile are left alone.
+                Query selected = new Query(Criteria.where("_id").in(ids).and("userId").is(job.getUserId()));
+                long done;
+                ProductChangedEvent.Type type;
+                if (job.getAction() == Action.REASSIGN) {
+                    // Bumps the version too, so the ETags of the moved products change.
+                    Update newOwner = new Update().set("userId", job.getReassignTo()).inc("version", 1);
+                    done = mongoTemplate.updateMulti(selected, newOwner, Product.class).getModifiedCount();
+                    type = ProductChangedEvent.Type.UPDATED;
+                } else {
+                    done = mongoTemplate.remove(selected, Product.class).getDeletedCount();
+                    type = ProductChangedEvent.Type.DELETED;
+                }
+                for (String id : ids) {
+                    eventPublisher.publishEvent(new ProductChangedEvent(type, id));
+                }
+                if (!renewLease(jobId, new Update().inc("processed", done))) {
+                    log.atWarn().addKeyValue("jobId", jobId).log("Product cleanup lease lost; left to its new owner");
+                    return;
+                }
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;  // Shutting down: the job stays RUNNING and is resumed once its lease expires.
+            }
+
+            updateOwnedJob(jobId, new Update().set("status", Status.COMPLETED)
+                    .unset("leaseOwner").unset("leaseExpiresAt").unset("nextAttemptAt")
+                    .set("finishedAt", Instant.now()));
+            log.atInfo().addKeyValue("jobId", jobId).addKeyValue("userId", job.getUserId())
+                    .addKeyValue("action", job.getAction()).log("Product cleanup completed");
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            fail(job, e);
+        }
+    }
+
+    // The job was recorded but its user is still there: the delete is in progress, or it failed and never happened.
+    private void waitForUserDelete(ProductCleanupJob job) {
+        if (job.getCreatedAt().plus(USER_DELETE_GRACE).isAfter(Instant.now())) {
+            updateOwnedJob(job.getId(), new Update().set("status", Status.PENDING)
+                    .set("nextAttemptAt", Instant.now().plus(pollInterval))
+                    .unset("leaseOwner").unset("leaseExpiresAt"));
+            return;
+        }
+        log.atWarn().addKeyValue("jobId", job.getId()).addKeyValue("userId", job.getUserId())
+                .log("Product cleanup abandoned: the user was not deleted");
+        updateOwnedJob(job.getId(), new Update().set("status", Status.FAILED)
+                .set("error", "The user was not deleted.")
+                .unset("nextAttemptAt").unset("leaseOwner").unset("leaseExpiresAt")
+                .set("finishedAt", Instant.now()));
+    }
+
+    // Marks the run FAILED; retried after retry-delay, doubled on every failure (capped at one hour), up to max-attempts.
+    private void fail(ProductCleanupJob job, Exception e) {
+        int attempts = job.getAttempts() + 1;
+        Update failed = new Update().set("status", Status.FAILED)
+                .set("error", RUN_FAILED)
+                .set("attempts", attempts)
+                .unset("leaseOwner").unset("leaseExpiresAt");
+        if (attempts < maxAttempts) {
+            Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+            failed.set("nextAttemptAt", Instant.now().plus((delay.compareTo(MAX_RETRY_DELAY) > 0) ? MAX_RETRY_DELAY : delay));
+            log.atWarn().setCause(e).addKeyValue("jobId", job.getId()).addKeyValue("attempts", attempts)
+                    .log("Product cleanup failed; will retry");
+        } else {
+            failed.unset("nextAttemptAt").set("finishedAt", Instant.now());
+            log.atError().setCause(e).addKeyValue("jobId", job.getId()).addKeyValue("attempts", attempts)
+                    .log("Product cleanup failed; giving up");
+        }
+        try {
+            updateOwnedJob(job.getId(), failed);
+        } catch (Exception ignored) {
+            // MongoDB is unavailable: the lease expires and the job is taken over as if this instance had crashed.
+        }
+    }
+
+    // Saves progress and extends the lease; false if another instance took the job over.
+    private boolean renewLease(String jobId, Update update) {
+        return updateOwnedJob(jobId, update.set("leaseExpiresAt", Instant.now().plus(lease)));
+    }
+
+    private boolean updateOwnedJob(String jobId, Update update) {
+        Query owned = Query.query(Criteria.where("_id").is(jobId).and("leaseOwner").is(instanceId));
+        return mongoTemplate.updateFirst(owned, update.set("updatedAt", Instant.now()), ProductCleanupJob.class)
+                .getMatchedCount() > 0;
+    }
+}
@@ -0,0 +1,34 @@
+package com.gritlab.letsplay.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Smile and CBOR ObjectMappers with the same configuration (modules, features) as the application's JSON mapper,
+ * so the binary encodings carry exactly the fields the JSON responses do.
+ */
+@Component
+public class BinaryObjectMappers {
+
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    public static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+
+    private final ObjectMapper smile;
+    private final ObjectMapper cbor;
+
+    public BinaryObjectMappers(ObjectMapper objectMapper) {
+        this.smile = objectMapper.copyWith(new SmileFactory());
+        this.cbor = objectMapper.copyWith(new CBORFactory());
+    }
+
+    public ObjectMapper smile() {
+        return smile;
+    }
+
+    public ObjectMapper cbor() {
+        return cbor;
+    }
+}
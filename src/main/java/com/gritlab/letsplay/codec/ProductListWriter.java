@@ -0,0 +1,61 @@
+package com.gritlab.letsplay.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gritlab.letsplay.model.ProductDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a product list one item at a time, for streamed responses (GET /products).
+ * finish() completes the list; closing without it (after an error) leaves it visibly incomplete.
+ */
+public interface ProductListWriter extends Closeable {
+
+    void write(ProductDTO product) throws IOException;
+
+    void finish() throws IOException;
+
+    // A JSON array, or its Smile/CBOR equivalent depending on the mapper.
+    static ProductListWriter jackson(ObjectMapper mapper, OutputStream out) throws IOException {
+        JsonGenerator generator = mapper.getFactory().createGenerator(out);
+        generator.writeStartArray();
+        return new ProductListWriter() {
+            @Override
+            public void write(ProductDTO product) throws IOException {
+                generator.writeObject(product);
+            }
+
+            @Override
+            public void finish() throws IOException {
+                generator.writeEndArray();
+            }
+
+            @Override
+            public void close() throws IOException {
+                generator.close();
+            }
+        };
+    }
+
+    // A ProductList message: nothing before or after the items.
+    static ProductListWriter protobuf(OutputStream out) {
+        return new ProductListWriter() {
+            @Override
+            public void write(ProductDTO product) throws IOException {
+                ProtobufEncoder.writeListItem(out, ProtobufEncoder.product(product));
+            }
+
+            @Override
+            public void finish() {
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.gritlab.letsplay.codec;
+
+import com.gritlab.letsplay.model.ProductDTO;
+import com.gritlab.letsplay.model.ProductPageDTO;
+import com.gritlab.letsplay.model.UserDTO;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes ProductDTO, UserDTO, ProductPageDTO and lists of ProductDTO/UserDTO as application/x-protobuf
+ * (see ProtobufEncoder). Responses only: request bodies stay JSON.
+ * Other response types have no schema, so a client accepting only protobuf gets 406 for them.
+ */
+public class ProtobufDtoHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public ProtobufDtoHttpMessageConverter() {
+        super(ProtobufEncoder.PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return isMessage(clazz) || List.class.isAssignableFrom(clazz);  // list elements are checked in canWrite
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType resolved = (type != null) ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        if (resolved.toClass() == Object.class) {
+            resolved = ResolvableType.forClass(clazz);  // e.g. ResponseEntity<Object>: decided by the actual body
+        }
+        if (List.class.isAssignableFrom(resolved.toClass())) {
+            Class<?> element = resolved.asCollection().getGeneric(0).toClass();
+            return element == ProductDTO.class || element == UserDTO.class;
+        }
+        return isMessage(resolved.toClass());
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported.", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported.", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream out = outputMessage.getBody();
+        if (body instanceof ProductDTO product) {
+            out.write(ProtobufEncoder.product(product));
+        } else if (body instanceof UserDTO user) {
+            out.write(ProtobufEncoder.user(user));
+        } else if (body instanceof ProductPageDTO page) {
+            out.write(ProtobufEncoder.productPage(page));
+        } else if (body instanceof List<?> items) {
+            for (Object item : items) {
+                if (item instanceof ProductDTO product) {
+                    ProtobufEncoder.writeListItem(out, ProtobufEncoder.product(product));
+                } else if (item instanceof UserDTO user) {
+                    ProtobufEncoder.writeListItem(out, ProtobufEncoder.user(user));
+                }
+            }
+        }
+    }
+
+    private static boolean isMessage(Class<?> clazz) {
+        return clazz == ProductDTO.class || clazz == UserDTO.class || clazz == ProductPageDTO.class;
+    }
+}
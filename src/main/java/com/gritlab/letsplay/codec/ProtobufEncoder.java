@@ -0,0 +1,118 @@
+package com.gritlab.letsplay.codec;
+
+import com.gritlab.letsplay.model.OwnerSummaryDTO;
+import com.gritlab.letsplay.model.ProductDTO;
+import com.gritlab.letsplay.model.ProductPageDTO;
+import com.gritlab.letsplay.model.UserDTO;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Protocol Buffers encoding of the API DTOs, following src/main/proto/letsplay.proto.
+ * The messages are small and flat, so they are written by hand (strings, one double, nested messages)
+ * instead of going through generated classes.
+ *
+ * List messages only have "repeated items = 1": a list is its items written one after another,
+ * which lets GET /products stream them as they are read.
+ */
+public final class ProtobufEncoder {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final int LENGTH_DELIMITED = 2;
+    private static final int FIXED_64 = 1;
+
+    private ProtobufEncoder() {
+    }
+
+    // -------------------------- Messages ------------------------------------------------- //
+    public static byte[] product(ProductDTO product) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        writeString(out, 1, product.getId());
+        writeString(out, 2, product.getName());
+        writeString(out, 3, product.getDescription());
+        if (product.getPrice() != null) {
+            writeDouble(out, 4, product.getPrice());
+        }
+        writeString(out, 5, product.getUserId());
+        if (product.getOwner() != null) {
+            writeMessage(out, 6, owner(product.getOwner()));
+        }
+        return out.toByteArray();
+    }
+
+    public static byte[] productPage(ProductPageDTO page) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (page.getItems() != null) {
+            for (ProductDTO product : page.getItems()) {
+                writeMessage(out, 1, product(product));
+            }
+        }
+        writeString(out, 2, page.getNextCursor());
+        return out.toByteArray();
+    }
+
+    public static byte[] user(UserDTO user) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(96);
+        writeString(out, 1, user.getId());
+        writeString(out, 2, user.getName());
+        writeString(out, 3, user.getEmail());
+        writeString(out, 4, user.getRole());
+        return out.toByteArray();
+    }
+
+    private static byte[] owner(OwnerSummaryDTO owner) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(48);
+        writeString(out, 1, owner.getId());
+        writeString(out, 2, owner.getName());
+        return out.toByteArray();
+    }
+
+    // One element of a ProductList / UserList (field 1).
+    public static void writeListItem(OutputStream out, byte[] message) throws IOException {
+        ByteArrayOutputStream prefix = new ByteArrayOutputStream(6);
+        writeTag(prefix, 1, LENGTH_DELIMITED);
+        writeVarint(prefix, message.length);
+        prefix.writeTo(out);
+        out.write(message);
+    }
+
+    // -------------------------- Wire format ------------------------------------------------- //
+    // Absent (null) strings are not written, like unset proto3 fields.
+    private static void writeString(ByteArrayOutputStream out, int field, String value) {
+        if (value == null) {
+            return;
+        }
+        writeMessage(out, field, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeMessage(ByteArrayOutputStream out, int field, byte[] bytes) {
+        writeTag(out, field, LENGTH_DELIMITED);
+        writeVarint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static void writeDouble(ByteArrayOutputStream out, int field, double value) {
+        writeTag(out, field, FIXED_64);
+        long bits = Double.doubleToLongBits(value);
+        for (int i = 0; i < 8; i++) {
+            out.write((int) (bits >>> (8 * i)) & 0xFF);  // little-endian
+        }
+    }
+
+    private static void writeTag(ByteArrayOutputStream out, int field, int wireType) {
+        writeVarint(out, (field << 3) | wireType);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
@@ -0,0 +1,26 @@
+package com.gritlab.letsplay.config;
+
+import com.gritlab.letsplay.cache.ProductCache;
+import com.gritlab.letsplay.cache.UserCache;
+import com.gritlab.letsplay.security.JwtTokenVerifier;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes size, hit/miss, eviction and load-latency metrics of the in-process caches
+ * (cache.gets, cache.evictions, cache.load.duration, ... tagged with cache=<name>).
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public MeterBinder cacheMetrics(ProductCache productCache, UserCache userCache, JwtTokenVerifier jwtTokenVerifier) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, productCache.getCache(), "products");
+            CaffeineCacheMetrics.monitor(registry, userCache.getCache(), "users");
+            CaffeineCacheMetrics.monitor(registry, jwtTokenVerifier.getCache(), "jwt-verifications");
+        };
+    }
+}
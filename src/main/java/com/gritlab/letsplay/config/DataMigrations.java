@@ -0,0 +1,58 @@
+package com.gritlab.letsplay.config;
+
+import com.gritlab.letsplay.model.Product;
+import com.gritlab.letsplay.model.ProductCleanupJob;
+import com.gritlab.letsplay.model.ProductCleanupJob.Status;
+import com.gritlab.letsplay.model.User;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+
+/**
+ * Idempotent data fixes applied at startup.
+ */
+@Configuration
+public class DataMigrations {
+
+    // Products saved before the @Version field existed have no "version".
+    // Spring Data would treat them as new (insert -> duplicate _id) on the next save, so start them at 0.
+    @Bean
+    public CommandLineRunner backfillProductVersions(MongoTemplate mongoTemplate) {
+        return args -> mongoTemplate.updateMulti(
+                Query.query(Criteria.where("version").exists(false)),
+                Update.update("version", 0L),
+                Product.class);
+    }
+
+    // Same for users saved before User got its @Version field.
+    @Bean
+    public CommandLineRunner backfillUserVersions(MongoTemplate mongoTemplate) {
+        return args -> mongoTemplate.updateMulti(
+                Query.query(Criteria.where("version").exists(false)),
+                Update.update("version", 0L),
+                User.class);
+    }
+
+    // Cleanup jobs recorded before jobs were claimed with a lease (no "attempts"): unfinished and failed ones become due now,
+    // and RUNNING ones get an already expired lease, so the next poll takes them over.
+    @Bean
+    public CommandLineRunner backfillCleanupJobSchedule(MongoTemplate mongoTemplate) {
+        return args -> {
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("status").in(Status.PENDING, Status.FAILED, Status.RUNNING)
+                            .and("nextAttemptAt").exists(false).and("attempts").exists(false)),
+                    Update.update("nextAttemptAt", Instant.now()),
+                    ProductCleanupJob.class);
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("status").is(Status.RUNNING).and("leaseExpiresAt").exists(false)),
+                    Update.update("leaseExpiresAt", Instant.EPOCH),
+                    ProductCleanupJob.class);
+        };
+    }
+}
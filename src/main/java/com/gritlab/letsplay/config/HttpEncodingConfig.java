@@ -0,0 +1,38 @@
+package com.gritlab.letsplay.config;
+
+import com.gritlab.letsplay.codec.BinaryObjectMappers;
+import com.gritlab.letsplay.codec.ProtobufDtoHttpMessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary response encodings chosen with the Accept header: Smile (application/x-jackson-smile),
+ * CBOR (application/cbor) and Protobuf (application/x-protobuf, see src/main/proto/letsplay.proto).
+ * They are added after the JSON converter, so JSON stays the default for clients sending no (or a wildcard) Accept.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class HttpEncodingConfig implements WebMvcConfigurer {
+
+    private final BinaryObjectMappers binaryObjectMappers;
+
+    public HttpEncodingConfig(BinaryObjectMappers binaryObjectMappers) {
+        this.binaryObjectMappers = binaryObjectMappers;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Replaces the Smile/CBOR converters Spring adds by default, which use a mapper without the application's settings.
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(binaryObjectMappers.smile()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(binaryObjectMappers.cbor()));
+        converters.add(new ProtobufDtoHttpMessageConverter());
+    }
+}
@@ -0,0 +1,43 @@
+package com.gritlab.letsplay.config;
+
+import com.gritlab.letsplay.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * Shared by the servlet and reactive security configurations.
+ * New hashes use password.encoder.algorithm ({bcrypt} or {argon2}); existing hashes of either kind still match,
+ * and hashes stored without an {id} prefix (e.g. admin.password-hash) are read as BCrypt.
+ * upgradeEncoding() reports hashes made with another algorithm or a lower cost, see PasswordHasher.upgradeIfNeeded.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${password.encoder.algorithm:bcrypt}") String algorithm,
+            @Value("${password.encoder.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${password.encoder.argon2.memory-kib:19456}") int argon2MemoryKib,
+            @Value("${password.encoder.argon2.iterations:2}") int argon2Iterations,
+            MeterRegistry meterRegistry) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcrypt,
+                "argon2", new Argon2PasswordEncoder(16, 32, 1, argon2MemoryKib, argon2Iterations));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("password.encoder.algorithm must be one of " + encoders.keySet());
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new TimedPasswordEncoder(delegating, meterRegistry);
+    }
+}
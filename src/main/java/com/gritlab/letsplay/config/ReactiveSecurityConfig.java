@@ -0,0 +1,142 @@
+package com.gritlab.letsplay.config;
+
+import com.gritlab.letsplay.security.JwtTokenVerifier;
+import com.gritlab.letsplay.security.LoginThrottle;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Security for the reactive profile: same JWT verification (JwtTokenVerifier) and the same access rules
+ * and JSON error bodies as SecurityConfig.
+ * The admin-only /users routes are secured by path here, and again by @PreAuthorize in ReactiveUserController
+ * (reactive method security).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain reactiveFilterChain(ServerHttpSecurity http, JwtTokenVerifier jwtTokenVerifier,
+                                                       LoginThrottle loginThrottle) {
+        http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(auth -> auth
+                        .pathMatchers(HttpMethod.POST, "/users/login", "/users/register", "/users/token/refresh").permitAll()
+                        .pathMatchers("/users/me", "/users/logout").authenticated()
+                        .pathMatchers("/users", "/users/**").hasRole("admin")
+                        .pathMatchers(HttpMethod.GET, "/products/me").authenticated()
+                        .pathMatchers(HttpMethod.GET, "/products", "/products/**").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/actuator/health", "/.well-known/jwks.json").permitAll()
+                        .pathMatchers("/actuator/**").hasRole("admin")
+                        .anyExchange().authenticated()
+                )
+                .exceptionHandling(exception -> exception
+                        .authenticationEntryPoint((exchange, ex) ->
+                                writeError(exchange, HttpStatus.UNAUTHORIZED, "Authentication required. Please log in."))
+                        .accessDeniedHandler((exchange, ex) ->
+                                writeError(exchange, HttpStatus.FORBIDDEN, "You do not have permission to perform this action."))
+                )
+                .addFilterAt(jwtAuthenticationFilter(jwtTokenVerifier), SecurityWebFiltersOrder.AUTHENTICATION)
+                .addFilterBefore(loginRateLimitFilter(loginThrottle), SecurityWebFiltersOrder.AUTHENTICATION);
+        return http.build();
+    }
+
+    // Reactive counterpart of JwtAuthenticationFilter: a missing or invalid token leaves the exchange anonymous,
+    // and the access rules above reject it where authentication is required.
+    private static WebFilter jwtAuthenticationFilter(JwtTokenVerifier jwtTokenVerifier) {
+        return (exchange, chain) -> {
+            String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (header == null || !header.startsWith("Bearer ")) {
+                return chain.filter(exchange);
+            }
+            Authentication auth;
+            try {
+                auth = jwtTokenVerifier.verify(header.substring(7));
+            } catch (Exception e) {
+                return chain.filter(exchange);
+            }
+            return chain.filter(exchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
+        };
+    }
+
+    // Reactive counterpart of LoginRateLimitFilter: the body is buffered for the email (up to
+    // LoginThrottle.MAX_BODY_BYTES, 413 beyond), then replayed downstream.
+    private static WebFilter loginRateLimitFilter(LoginThrottle loginThrottle) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.POST || !"/users/login".equals(request.getPath().value())) {
+                return chain.filter(exchange);
+            }
+            InetSocketAddress remote = request.getRemoteAddress();
+            String clientIp = (remote != null) ? remote.getHostString() : "unknown";
+
+            if (request.getHeaders().getContentLength() > LoginThrottle.MAX_BODY_BYTES) {
+                return writeError(exchange, HttpStatus.PAYLOAD_TOO_LARGE, "Request body too large.");
+            }
+            return DataBufferUtils.join(request.getBody(), LoginThrottle.MAX_BODY_BYTES)
+                    .map(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(body -> {
+                        long retryAfter = loginThrottle.check(clientIp, body);
+                        if (retryAfter > 0) {
+                            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+                            return writeError(exchange, HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts. Please retry later.");
+                        }
+                        ServerHttpRequest replayed = new ServerHttpRequestDecorator(request) {
+                            @Override
+                            public Flux<DataBuffer> getBody() {
+                                return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+                            }
+                        };
+                        return chain.filter(exchange.mutate().request(replayed).build());
+                    })
+                    .onErrorResume(DataBufferLimitException.class,
+                            e -> writeError(exchange, HttpStatus.PAYLOAD_TOO_LARGE, "Request body too large."));
+        };
+    }
+
+    private static Mono<Void> writeError(ServerWebExchange exchange, HttpStatus status, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"status\":\"error\",\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
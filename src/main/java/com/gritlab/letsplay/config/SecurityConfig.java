@@ -1,7 +1,11 @@
 package com.gritlab.letsplay.config;
 
 import com.gritlab.letsplay.security.JwtAuthenticationFilter;
+import com.gritlab.letsplay.security.JwtTokenVerifier;
+import com.gritlab.letsplay.security.LoginRateLimitFilter;
+import com.gritlab.letsplay.security.LoginThrottle;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -9,31 +13,30 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.http.HttpMethod;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.beans.factory.annotation.Value;
 
+// Servlet (default) stack; the reactive profile uses ReactiveSecurityConfig instead.
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
-    @Value("${jwt.secret}")
-    private String jwtSecret;
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtTokenVerifier jwtTokenVerifier, LoginThrottle loginThrottle) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers(HttpMethod.POST, "/users/login", "/users/register").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/users/login", "/users/register", "/users/token/refresh").permitAll()
                         .requestMatchers("/users/**").authenticated() // covers GET/POST/PUT/DELETE for /users except login/register
                         .requestMatchers(HttpMethod.GET, "/products/**", "/products").permitAll()
                         .requestMatchers(HttpMethod.GET, "/products/me").authenticated()
                         .requestMatchers(HttpMethod.POST, "/products/**").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/products/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/products/**").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/.well-known/jwks.json").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("admin")
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(exception -> exception
@@ -43,12 +46,9 @@ public class SecurityConfig {
                         response.getWriter().write("{\"status\":\"error\",\"message\":\"Authentication required. Please log in.\"}");
                     })
                 )
-                .addFilterBefore(new JwtAuthenticationFilter(jwtSecret), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new JwtAuthenticationFilter(jwtTokenVerifier), UsernamePasswordAuthenticationFilter.class)
+                // Throttled before authentication, so rejected login attempts cost no user lookup or hashing
+                .addFilterBefore(new LoginRateLimitFilter(loginThrottle), JwtAuthenticationFilter.class);
         return http.build();
     }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
-    }
 }
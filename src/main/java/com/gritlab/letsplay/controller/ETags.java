@@ -0,0 +1,69 @@
+package com.gritlab.letsplay.controller;
+
+import com.gritlab.letsplay.exception.GlobalExceptionHandler.PreconditionFailedException;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Strong ETags built from a document id and its @Version (plus the encoding, for responses negotiated with Accept),
+// and the If-Match versions writes are conditioned on.
+final class ETags {
+
+    private ETags() {
+    }
+
+    // Unquoted; Spring adds the quotes when it writes the header.
+    static String of(String id, Long version) {
+        return id + "-" + ((version != null) ? version : 0L);
+    }
+
+    // "id-version-subtype": each encoding of the same version is its own representation (see ResponseFormats).
+    static String of(String id, Long version, MediaType format) {
+        return of(id, version) + "-" + format.getSubtype();
+    }
+
+    // The versions of "id" listed in If-Match (the ETag of any encoding of a version names that version), to make the write itself conditional (no read first).
+    // Null when any version may be overwritten (no If-Match, or "*").
+    static List<Long> versionsOf(String ifMatch, String id) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String prefix = id + "-";
+        List<Long> versions = new ArrayList<>();
+        for (String tag : strongTags(ifMatch)) {
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.startsWith(prefix)) {
+                try {
+                    String version = tag.substring(prefix.length());
+                    int format = version.indexOf('-');
+                    versions.add(Long.parseLong((format < 0) ? version : version.substring(0, format)));
+                } catch (NumberFormatException e) {
+                    // not one of our ETags: cannot match
+                }
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("If-Match does not match the current version.");
+        }
+        return versions;
+    }
+
+    // Unquoted entity tags of an If-Match header; weak ones are dropped (If-Match uses strong comparison only).
+    private static List<String> strongTags(String header) {
+        List<String> tags = new ArrayList<>();
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                continue;
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            tags.add(tag);
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,35 @@
+package com.gritlab.letsplay.controller;
+
+import com.gritlab.letsplay.security.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Public keys of the JWT key ring (JWKS, RFC 7517), so other services can verify access tokens locally.
+ * Served by both the servlet and the reactive stack.
+ */
+@RestController
+public class JwksController {
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @Value("${jwt.keys.refresh-interval:1m}")
+    private Duration refreshInterval;
+
+    // GET the JWK set (public). New keys appear here before they sign anything, so caching for one
+    // refresh interval never hides a key that is already in use.
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(refreshInterval).cachePublic())
+                .body(Map.of("keys", keyRing.publicJwks()));
+    }
+}
@@ -0,0 +1,424 @@
+package com.gritlab.letsplay.controller;
+
+import com.gritlab.letsplay.cache.UserCache;
+import com.gritlab.letsplay.event.ProductChangedEvent;
+import com.gritlab.letsplay.exception.GlobalExceptionHandler.*;
+import com.gritlab.letsplay.model.*;
+import com.gritlab.letsplay.repository.ProductRepository;
+import com.gritlab.letsplay.security.AuthenticatedUser;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk create/update/delete of products for seeding jobs and integrations.
+ * The caller is resolved once per request, each item is validated on its own, and all writes
+ * go to MongoDB as a single bulk operation. The response reports the outcome of every item.
+ *
+ * ordered=true (default): processing stops at the first failing item, later items are reported as 424.
+ * ordered=false: every valid item is attempted, failures are reported individually.
+ * Updates and deletes are filtered on the owner (unless admin), so a product given to another owner or deleted
+ * after it was read is not written; that item is reported as 403 or 404 (ordered mode does not stop there).
+ */
+@RestController
+@RequestMapping("/products/batch")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ProductBatchController {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductBatchController.class);
+
+    static final int MAX_BATCH_SIZE = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // === CREATE products in bulk (401 Unauthorized if user not authenticated) === //
+    @PostMapping
+    public BatchResultDTO createProducts(
+            @RequestBody List<ProductInputDTO> inputs,
+            @RequestParam(defaultValue = "true") boolean ordered,
+            Authentication auth) {
+        checkBatchSize(inputs);
+        User user = currentUser(auth);
+
+        Batch batch = new Batch(inputs.size(), ordered, mongoTemplate.bulkOps(mode(ordered), Product.class));
+        for (int i = 0; i < inputs.size() && !batch.isStopped(); i++) {
+            ProductInputDTO input = inputs.get(i);
+            String error = validate(input);
+            if (error != null) {
+                batch.fail(i, null, 400, error);
+                continue;
+            }
+
+            // Ids and versions are assigned here: bulk inserts bypass the repository's save() handling.
+            Product product = new Product();
+            product.setId(new ObjectId().toHexString());
+            product.setName(input.getName());
+            product.setDescription(input.getDescription());
+            product.setPrice(input.getPrice());
+            product.setUserId(user.getId());
+            product.setVersion(0L);
+
+            batch.getBulk().insert(product);
+            batch.queue(i, product.getId());
+        }
+
+        batch.execute(201, "Product created");
+        publish(batch, ProductChangedEvent.Type.CREATED);
+        return batch.toResult();
+    }
+
+    // === UPDATE products in bulk (ADMIN & product owner, per item) === //
+    @PutMapping
+    public BatchResultDTO updateProducts(
+            @RequestBody List<ProductBatchUpdateDTO> inputs,
+            @RequestParam(defaultValue = "true") boolean ordered,
+            Authentication auth) {
+        checkBatchSize(inputs);
+        User user = currentUser(auth);
+        boolean isAdmin = "admin".equalsIgnoreCase(user.getRole());
+
+        // One query for all targeted products, and one for all new owners (admin reassignment).
+        Map<String, Product> products = findProducts(inputs.stream()
+                .filter(Objects::nonNull).map(ProductBatchUpdateDTO::getId).toList());
+        Set<String> existingOwners = isAdmin
+                ? findExistingUserIds(inputs.stream().filter(Objects::nonNull).map(ProductBatchUpdateDTO::getUserId).toList())
+                : Set.of();
+
+        Batch batch = new Batch(inputs.size(), ordered, mongoTemplate.bulkOps(mode(ordered), Product.class));
+        for (int i = 0; i < inputs.size() && !batch.isStopped(); i++) {
+            ProductBatchUpdateDTO input = inputs.get(i);
+            String error = validate(input);
+            if (error != null) {
+                batch.fail(i, input != null ? input.getId() : null, 400, error);
+                continue;
+            }
+            Product product = products.get(input.getId());
+            if (product == null) {
+                batch.fail(i, input.getId(), 404, "Product not found.");
+                continue;
+            }
+            if (!product.getUserId().equals(user.getId()) && !isAdmin) {
+                batch.fail(i, input.getId(), 403, "You don't have permission to modify this product.");
+                continue;
+            }
+
+            Update update = new Update();
+            boolean updated = false;
+
+            if (input.getName() != null && !input.getName().isEmpty()) {
+                update.set("name", input.getName());
+                updated = true;
+            }
+            if (input.getDescription() != null && !input.getDescription().isEmpty()) {
+                update.set("description", input.getDescription());
+                updated = true;
+            }
+            if (input.getPrice() != null) {
+                update.set("price", input.getPrice());
+                updated = true;
+            }
+
+            // Allow admin to change ownership (userId)
+            if (isAdmin && input.getUserId() != null && !input.getUserId().isEmpty()
+                    && !input.getUserId().equals(product.getUserId())) {
+                if (!existingOwners.contains(input.getUserId())) {
+                    batch.fail(i, input.getId(), 404, "New owner user not found.");
+                    continue;
+                }
+                update.set("userId", input.getUserId());
+                updated = true;
+            }
+
+            if (!updated) {
+                batch.fail(i, input.getId(), 400, "No fields provided to update.");
+                continue;
+            }
+
+            update.inc("version", 1);
+            batch.getBulk().updateOne(ownedBy(product.getId(), user, isAdmin), update);
+            batch.queue(i, product.getId());
+        }
+
+        BulkWriteResult written = batch.execute(200, "Product updated");
+        if (written != null && written.getMatchedCount() < batch.getSucceededIds().size()) {
+            rejectUnmatched(batch, user, isAdmin, false, "You don't have permission to modify this product.");
+        }
+        publish(batch, ProductChangedEvent.Type.UPDATED);
+        return batch.toResult();
+    }
+
+    // === DELETE products in bulk (ADMIN & product owner, per item) === //
+    @DeleteMapping
+    public BatchResultDTO deleteProducts(
+            @RequestBody List<String> ids,
+            @RequestParam(defaultValue = "true") boolean ordered,
+            Authentication auth) {
+        checkBatchSize(ids);
+        User user = currentUser(auth);
+        boolean isAdmin = "admin".equalsIgnoreCase(user.getRole());
+
+        Map<String, Product> products = findProducts(ids);
+
+        Batch batch = new Batch(ids.size(), ordered, mongoTemplate.bulkOps(mode(ordered), Product.class));
+        for (int i = 0; i < ids.size() && !batch.isStopped(); i++) {
+            String id = ids.get(i);
+            if (id == null || id.isBlank()) {
+                batch.fail(i, null, 400, "Product id is required.");
+                continue;
+            }
+            Product product = products.get(id);
+            if (product == null) {
+                batch.fail(i, id, 404, "Product not found.");
+                continue;
+            }
+            if (!product.getUserId().equals(user.getId()) && !isAdmin) {
+                batch.fail(i, id, 403, "You don't have permission to delete this product.");
+                continue;
+            }
+
+            batch.getBulk().remove(ownedBy(id, user, isAdmin));
+            batch.queue(i, id);
+        }
+
+        BulkWriteResult written = batch.execute(200, "Product deleted");
+        if (written != null && written.getDeletedCount() < batch.getSucceededIds().size()) {
+            rejectUnmatched(batch, user, isAdmin, true, "You don't have permission to delete this product.");
+        }
+        publish(batch, ProductChangedEvent.Type.DELETED);
+        return batch.toResult();
+    }
+
+    // -------------------------- Helper function ------------------------------------------------- //
+    private static void checkBatchSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one item.");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must not contain more than " + MAX_BATCH_SIZE + " items.");
+        }
+    }
+
+    private static BulkOperations.BulkMode mode(boolean ordered) {
+        return ordered ? BulkOperations.BulkMode.ORDERED : BulkOperations.BulkMode.UNORDERED;
+    }
+
+    // Same constraints as @Valid on the single-item endpoints; returns null when the item is valid.
+    private String validate(Object input) {
+        if (input == null) {
+            return "Item is missing.";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(input);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private Map<String, Product> findProducts(Collection<String> ids) {
+        Set<String> wanted = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        List<Product> found = productRepository.findAllById(wanted);
+        return found.stream().collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    private Set<String> findExistingUserIds(Collection<String> ids) {
+        Set<String> wanted = ids.stream().filter(id -> id != null && !id.isEmpty()).collect(Collectors.toSet());
+        if (wanted.isEmpty()) {
+            return Set.of();
+        }
+        return userCache.getAll(wanted).keySet();
+    }
+
+    // Same write filter as ProductRepositoryCustom.updateFields/deleteOwned: _id, plus userId unless admin
+    private static Query ownedBy(String id, User user, boolean isAdmin) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        return Query.query(isAdmin ? criteria : criteria.and("userId").is(user.getId()));
+    }
+
+    // A bulk result only counts the writes, so when some matched nothing (product deleted, or given to another
+    // owner, since it was read) the written products are read again to report those items as 404 or 403.
+    // For deletes, a product that still exists was not deleted; one that is gone counts as deleted.
+    private void rejectUnmatched(Batch batch, User user, boolean isAdmin, boolean deleted, String forbiddenMessage) {
+        Map<String, Product> current = findProducts(batch.getSucceededIds());
+        for (String id : List.copyOf(batch.getSucceededIds())) {
+            Product product = current.get(id);
+            if (product == null) {
+                if (!deleted) {
+                    batch.reject(id, 404, "Product not found.");
+                }
+            } else if (deleted || (!isAdmin && !product.getUserId().equals(user.getId()))) {
+                batch.reject(id, 403, forbiddenMessage);
+            }
+        }
+    }
+
+    private void publish(Batch batch, ProductChangedEvent.Type type) {
+        for (String id : batch.getSucceededIds()) {
+            eventPublisher.publishEvent(new ProductChangedEvent(type, id));
+        }
+    }
+
+    // Helper method to resolve the authenticated user through the user cache, once per batch
+    private User currentUser(Authentication auth) {
+        return userCache.findById(AuthenticatedUser.of(auth).id())
+                .orElseThrow(() -> new UnauthorizedException("User not authenticated."));
+    }
+
+    /** Tracks per-item outcomes of one bulk request and maps bulk write errors back to request items. */
+    private static class Batch {
+        private final BatchItemResultDTO[] results;
+        private final boolean ordered;
+        private final BulkOperations bulk;
+        private final List<Integer> queuedIndexes = new ArrayList<>();  // bulk operation position -> request index
+        private final List<String> queuedIds = new ArrayList<>();
+        private final List<String> succeededIds = new ArrayList<>();
+        private boolean stopped;
+
+        Batch(int size, boolean ordered, BulkOperations bulk) {
+            this.results = new BatchItemResultDTO[size];
+            this.ordered = ordered;
+            this.bulk = bulk;
+        }
+
+        BulkOperations getBulk() {
+            return bulk;
+        }
+
+        boolean isStopped() {
+            return stopped;
+        }
+
+        List<String> getSucceededIds() {
+            return succeededIds;
+        }
+
+        void queue(int index, String id) {
+            queuedIndexes.add(index);
+            queuedIds.add(id);
+        }
+
+        // In ordered mode the first failure stops the batch; already queued items are still written.
+        void fail(int index, String id, int status, String message) {
+            results[index] = new BatchItemResultDTO(index, id, status, message);
+            if (ordered) {
+                stopped = true;
+            }
+        }
+
+        // Returns the counts of the bulk write (null if nothing was queued)
+        BulkWriteResult execute(int successStatus, String successMessage) {
+            if (queuedIndexes.isEmpty()) {
+                return null;
+            }
+            BatchItemResultDTO[] errors = new BatchItemResultDTO[queuedIndexes.size()];
+            int firstError = Integer.MAX_VALUE;
+            BulkWriteResult written;
+            try {
+                written = bulk.execute();
+            } catch (BulkOperationException ex) {
+                written = ex.getResult();
+                for (BulkWriteError error : ex.getErrors()) {
+                    int position = error.getIndex();
+                    int status;
+                    String message;
+                    if (error.getCode() == 11000) {
+                        status = 409;
+                        message = "Product with the same name, description, and price already exists.";
+                    } else {
+                        // The driver's message names collections, indexes and values: logged here, not returned.
+                        log.atWarn().addKeyValue("id", queuedIds.get(position)).addKeyValue("code", error.getCode())
+                                .log("Batch product write failed: {}", error.getMessage());
+                        status = 500;
+                        message = "The product could not be written.";
+                    }
+                    errors[position] = new BatchItemResultDTO(queuedIndexes.get(position), queuedIds.get(position), status, message);
+                    firstError = Math.min(firstError, position);
+                }
+                if (ordered) {
+                    stopped = true;
+                }
+            }
+
+            for (int position = 0; position < queuedIndexes.size(); position++) {
+                int index = queuedIndexes.get(position);
+                String id = queuedIds.get(position);
+                if (errors[position] != null) {
+                    results[index] = errors[position];
+                } else if (ordered && position > firstError) {
+                    results[index] = null; // never executed, reported as skipped
+                } else {
+                    results[index] = new BatchItemResultDTO(index, id, successStatus, successMessage);
+                    succeededIds.add(id);
+                }
+            }
+            return written;
+        }
+
+        // Turns the written items of that product into failures: their write matched nothing.
+        void reject(String id, int status, String message) {
+            for (int position = 0; position < queuedIds.size(); position++) {
+                int index = queuedIndexes.get(position);
+                if (queuedIds.get(position).equals(id) && results[index] != null && results[index].getStatus() < 300) {
+                    results[index] = new BatchItemResultDTO(index, id, status, message);
+                }
+            }
+            succeededIds.removeIf(id::equals);
+        }
+
+        BatchResultDTO toResult() {
+            int succeeded = 0;
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    results[i] = new BatchItemResultDTO(i, null, 424, "Not processed: an earlier item failed (ordered mode).");
+                } else if (results[i].getStatus() < 300) {
+                    succeeded++;
+                }
+            }
+            BatchResultDTO result = new BatchResultDTO();
+            result.setSucceeded(succeeded);
+            result.setFailed(results.length - succeeded);
+            result.setItems(Arrays.asList(results));
+            return result;
+        }
+    }
+}
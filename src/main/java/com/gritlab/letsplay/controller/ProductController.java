@@ -1,40 +1,281 @@
  package com.gritlab.letsplay.controller;
 
+ import com.gritlab.letsplay.cache.CatalogSnapshot;
+ import com.gritlab.letsplay.cache.CatalogVersion;
+ import com.gritlab.letsplay.cache.ProductCache;
+ import com.gritlab.letsplay.cache.UserCache;
+ import com.gritlab.letsplay.codec.BinaryObjectMappers;
+ import com.gritlab.letsplay.codec.ProductListWriter;
+ import com.gritlab.letsplay.codec.ProtobufEncoder;
+ import com.gritlab.letsplay.event.ProductChangeFeed;
+ import com.gritlab.letsplay.event.ProductChangedEvent;
  import com.gritlab.letsplay.exception.GlobalExceptionHandler.*;
  import com.gritlab.letsplay.model.*;
+ import com.gritlab.letsplay.repository.ProductFilter;
  import com.gritlab.letsplay.repository.ProductRepository;
- import com.gritlab.letsplay.repository.UserRepository;
+ import com.gritlab.letsplay.search.ProductSearchIndex;
+ import com.gritlab.letsplay.security.AuthenticatedUser;
+ import com.fasterxml.jackson.databind.ObjectMapper;
+ import org.bson.types.ObjectId;
  import org.springframework.beans.factory.annotation.Autowired;
+ import org.springframework.beans.factory.annotation.Value;
+ import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+ import org.springframework.context.ApplicationEventPublisher;
+ import org.springframework.data.mongodb.core.query.Update;
+ import org.springframework.http.HttpHeaders;
+ import org.springframework.http.MediaType;
+ import org.springframework.http.ResponseEntity;
  import org.springframework.web.bind.annotation.*;
+ import org.springframework.web.context.request.WebRequest;
+ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+ import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+ import java.io.IOException;
+ import java.io.ByteArrayInputStream;
+ import java.io.InputStream;
+ import java.io.OutputStream;
+ import java.time.Duration;
+ import java.util.ArrayList;
+ import java.util.Iterator;
  import java.util.List;
+ import java.util.Map;
+ import java.util.Objects;
  import java.util.Optional;
+ import java.util.function.Function;
+ import java.util.stream.Collectors;
+ import java.util.stream.Stream;
+ import java.util.zip.GZIPInputStream;
 
  import org.springframework.security.core.Authentication;
+ import jakarta.servlet.http.HttpServletResponse;
  import jakarta.validation.Valid;
 
+ // Servlet (default) stack; the reactive profile serves /products from ReactiveProductController instead.
  @RestController
  @RequestMapping("/products")
+ @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
  public class ProductController {
 
      @Autowired
-     private UserRepository userRepository;
+     private ProductRepository productRepository;
 
      @Autowired
-     private ProductRepository productRepository;
+     private ObjectMapper objectMapper;
+
+     @Autowired
+     private BinaryObjectMappers binaryObjectMappers;
+
+     @Autowired
+     private UserCache userCache;
+
+     @Autowired
+     private ProductCache productCache;
+
+     @Autowired
+     private ApplicationEventPublisher eventPublisher;
+
+     @Autowired
+     private CatalogVersion catalogVersion;
+
+     @Autowired
+     private ProductSearchIndex searchIndex;
+
+     @Autowired
+     private ProductChangeFeed changeFeed;
+
+     @Autowired(required = false)  // only with catalog.snapshot.enabled=true
+     private CatalogSnapshot catalogSnapshot;
+
+     @Value("${products.events.timeout:30m}")
+     private Duration eventsTimeout;
+
+     static final int DEFAULT_PAGE_SIZE = 50;
+     static final int MAX_PAGE_SIZE = 200;
+     static final int MAX_SEARCH_RESULTS = 100;
+     static final int OWNER_BATCH_SIZE = 500;
 
      // -------------------------- Public access ------------------------------------------------- //
-     // GET all products (public)
+     // GET all products (public) / (400 Bad Request if a filter is invalid, 304 Not Modified if ETag matches)
+     // Optional filters: minPrice, maxPrice, name (prefix), owner (user id); sort: id|name|price[,asc|desc].
+     // Streams the JSON array straight from a MongoDB cursor, so memory stays flat whatever the catalog size.
+     // Accept: application/x-jackson-smile, application/cbor or application/x-protobuf streams that encoding instead.
+     // expand=owner embeds each owner's summary; owners are resolved per batch of 500 products, not per product.
      @GetMapping
-     public List<ProductDTO> getAllProducts() {
-         return productRepository.findAll().stream().map(this::toDTO).toList();
+     public ResponseEntity<StreamingResponseBody> getAllProducts(
+             @RequestParam(required = false) Double minPrice,
+             @RequestParam(required = false) Double maxPrice,
+             @RequestParam(required = false) String name,
+             @RequestParam(required = false) String owner,
+             @RequestParam(required = false) String sort,
+             @RequestParam(required = false) String expand,
+             WebRequest request,
+             HttpServletResponse response) {
+         ProductFilter filter = new ProductFilter(minPrice, maxPrice, name, owner, sort);
+         boolean withOwner = expandOwner(expand);
+         MediaType format = ResponseFormats.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+         // The catalog version is in memory: a 304 costs no query and no serialization.
+         // Not for expanded responses: owner names can change without a catalog change.
+         if (!withOwner && notModified(request, response,
+                 catalogVersion.etag() + "-" + filter.cacheKey() + "-" + format.getSubtype())) {
+             return null;
+         }
+         // The plain JSON catalog listing comes from the in-memory gzip snapshot when it is up to date.
+         if (catalogSnapshot != null && !withOwner && filter.isUnfiltered()
+                 && MediaType.APPLICATION_JSON.equals(format)) {
+             Optional<CatalogSnapshot.Snapshot> snapshot = catalogSnapshot.current();
+             if (snapshot.isPresent()) {
+                 return snapshotResponse(snapshot.get(), request);
+             }
+         }
+         StreamingResponseBody body = out -> {
+             try (Stream<Product> products = productRepository.streamFiltered(filter);
+                  ProductListWriter writer = listWriter(format, out)) {
+                 Iterator<Product> it = products.iterator();
+                 if (!withOwner) {
+                     while (it.hasNext()) {
+                         writer.write(ProductDTO.from(it.next()));
+                     }
+                 } else {
+                     List<Product> batch = new ArrayList<>(OWNER_BATCH_SIZE);
+                     while (it.hasNext()) {
+                         batch.add(it.next());
+                         if (batch.size() == OWNER_BATCH_SIZE || !it.hasNext()) {
+                             for (ProductDTO dto : toDTOs(batch, true)) {
+                                 writer.write(dto);
+                             }
+                             batch.clear();
+                         }
+                     }
+                 }
+                 writer.finish();
+             }
+         };
+         return ResponseEntity.ok()
+                 .contentType(format)
+                 .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                 .body(body);
      }
 
-     // GET single product (public) / (404 Not Found if product does not exist)
+     // GET one page of products (public) / (400 Bad Request if cursor, size or a filter is invalid)
+     // Keyset pagination: pass the previous page's nextCursor as "after" to get the following page.
+     // Accepts the same filters as GET /products; pages are always ordered by id.
+     @GetMapping("/page")
+     public ResponseEntity<ProductPageDTO> getProductPage(
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+             @RequestParam(required = false) Double minPrice,
+             @RequestParam(required = false) Double maxPrice,
+             @RequestParam(required = false) String name,
+             @RequestParam(required = false) String owner,
+             @RequestParam(required = false) String expand,
+             WebRequest request,
+             HttpServletResponse response) {
+         ProductFilter filter = new ProductFilter(minPrice, maxPrice, name, owner, null);
+         MediaType format = ResponseFormats.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+         boolean withOwner = expandOwner(expand);
+         if (size < 1 || size > MAX_PAGE_SIZE) {
+             throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+         }
+         if (after != null && !ObjectId.isValid(after)) {
+             throw new IllegalArgumentException("Invalid cursor.");
+         }
+         String etag = catalogVersion.etag() + "-" + filter.cacheKey() + "-" + after + "-" + size + "-" + format.getSubtype();
+         if (!withOwner && notModified(request, response, etag)) {
+             return null;
+         }
+
+         // Fetch one extra item to know whether another page exists, without a count query.
+         List<Product> products = productRepository.findPageFiltered(filter, after, size + 1);
+
+         boolean hasMore = products.size() > size;
+         List<Product> items = hasMore ? products.subList(0, size) : products;
+
+         ProductPageDTO page = new ProductPageDTO();
+         page.setItems(toDTOs(items, withOwner));
+         page.setNextCursor(hasMore ? items.get(items.size() - 1).getId() : null);
+         return ResponseEntity.ok()
+                 .contentType(format)
+                 .varyBy(HttpHeaders.ACCEPT)
+                 .body(page);
+     }
+
+     // SEARCH products by keywords in name and description (public) / (400 Bad Request if q or limit is invalid)
+     // Best match first; matches prefixes ("blend" -> "blender") and small typos ("blendr").
+     @GetMapping("/search")
+     public List<ProductDTO> searchProducts(
+             @RequestParam String q,
+             @RequestParam(defaultValue = "20") int limit,
+             @RequestParam(required = false) String expand) {
+         boolean withOwner = expandOwner(expand);
+         if (q.isBlank()) {
+             throw new IllegalArgumentException("Search query must not be empty.");
+         }
+         if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+             throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_RESULTS + ".");
+         }
+
+         // Ranking comes from the in-memory index; the products themselves are loaded with one $in query.
+         List<String> ids = searchIndex.search(q, limit);
+         Map<String, Product> products = productRepository.findAllById(ids).stream()
+                 .collect(Collectors.toMap(Product::getId, Function.identity()));
+         List<Product> ranked = ids.stream()
+                 .map(products::get)
+                 .filter(Objects::nonNull)
+                 .toList();
+         return toDTOs(ranked, withOwner);
+     }
+
+     // STREAM product changes as Server-Sent Events (public): "created"/"updated" carry the product, "deleted" its id.
+     // Reconnecting with Last-Event-ID (or ?lastEventId=) replays missed changes, or sends "reset" (refetch everything).
+     @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+     public SseEmitter streamProductChanges(
+             @RequestHeader(name = "Last-Event-ID", required = false) String lastEventIdHeader,
+             @RequestParam(name = "lastEventId", required = false) String lastEventIdParam) {
+         SseEmitter emitter = new SseEmitter(eventsTimeout.toMillis());
+         String lastEventId = (lastEventIdHeader != null) ? lastEventIdHeader : lastEventIdParam;
+         ProductChangeFeed.Subscription subscription = changeFeed.subscribe(lastEventId, new ProductChangeFeed.Sink() {
+             @Override
+             public void send(ProductChangeFeed.Change change) throws IOException {
+                 emitter.send(SseEmitter.event()
+                         .id(change.id())
+                         .name(change.type())
+                         .data(change, MediaType.APPLICATION_JSON));
+             }
+
+             @Override
+             public void heartbeat() throws IOException {
+                 emitter.send(SseEmitter.event().comment("heartbeat"));
+             }
+
+             @Override
+             public void close() {
+                 emitter.complete();
+             }
+         });
+         emitter.onCompletion(subscription::close);
+         emitter.onTimeout(subscription::close);
+         emitter.onError(e -> subscription.close());
+         return emitter;
+     }
+
+     // GET single product (public) / (404 Not Found if product does not exist, 304 Not Modified if ETag matches)
+     // The ETag names the version and the negotiated encoding; Spring answers the 304 from it, skipping serialization.
      @GetMapping("/{id}")
-     public ProductDTO getProductById(@PathVariable String id) {
-         Product product = productRepository.findById(id)
+     public ResponseEntity<ProductDTO> getProductById(
+             @PathVariable String id,
+             @RequestParam(required = false) String expand,
+             @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+         boolean withOwner = expandOwner(expand);
+         MediaType format = ResponseFormats.negotiate(accept);
+         Product product = productCache.findById(id)
                  .orElseThrow(() -> new ResourceNotFoundException("Product not found."));
-         return toDTO(product);
+         ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                 .contentType(format)
+                 .varyBy(HttpHeaders.ACCEPT);
+         if (withOwner) {
+             // No ETag: owner names can change without a product version change.
+             return response.body(ProductDTO.from(product, userCache.findById(product.getUserId()).orElse(null)));
+         }
+         return response.eTag(etagOf(product, format)).body(ProductDTO.from(product));
      }
 
      // -------------------------- Need auth ------------------------------------------------- //
@@ -43,11 +284,8 @@
      public ProductDTO createProduct(
              @Valid @RequestBody ProductInputDTO input,
              Authentication auth) {
-         // Get email from JWT to ensure only the authenticated user can create product.
-         String userEmail = auth.getName(); // usually the username/email
-         Optional<User> userOpt = userRepository.findByEmail(userEmail);
-         User user = userOpt
-                 .orElseThrow(() -> new UnauthorizedException("User not authenticated."));
+         // Get the user id from the JWT to ensure only the authenticated user can create product.
+         User user = currentUser(auth);
 
          Product product = new Product();
          product.setName(input.getName());
@@ -56,55 +294,48 @@
          product.setUserId(user.getId());
 
          Product saved = productRepository.save(product);
-         return toDTO(saved);
+         eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, saved.getId()));
+         return ProductDTO.from(saved);
      }
 
 
-     // === UPDATE product (ADMIN & product owner) === //
+     // === UPDATE product (ADMIN & product owner) / (412 Precondition Failed if If-Match is not the current ETag) === //
      @PutMapping("/{id}")
-    public ProductDTO updateProduct(
+    public ResponseEntity<ProductDTO> updateProduct(
             @PathVariable String id,
             @Valid @RequestBody ProductUpdateDTO input,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
             Authentication auth) {
 
-         Product product = productRepository.findById(id)
-                 .orElseThrow(() -> new ResourceNotFoundException("Product not found."));
-
-         // Looks up the authenticated user by email and retrieves their id and role.
-         String userEmail = auth.getName();
-         Optional<User> userOpt = userRepository.findByEmail(userEmail);
-         User user = userOpt
-                 .orElseThrow(() -> new UnauthorizedException("User not authenticated."));
-
-         boolean isOwner = product.getUserId().equals(user.getId());
-         boolean isAdmin = "admin".equalsIgnoreCase(user.getRole());
-
-         // Allows the owner of the product or an admin.
-         if (!isOwner && !isAdmin) {
-             throw new ForbiddenException("You don't have permission to modify this product.");
-         }
+         // Resolves the authenticated user through the user cache, not the JWT claims alone: a deleted user or a
+         // changed role applies at once, not when the access token expires. The product is not read before the write.
+         User caller = currentUser(auth);
+         boolean isAdmin = "admin".equalsIgnoreCase(caller.getRole());
+         List<Long> expectedVersions = ETags.versionsOf(ifMatch, id);
 
+         // Only the changed fields are written ($set), not the whole document.
+         Update changes = new Update();
          boolean updated = false;
 
          if (input.getName() != null && !input.getName().isEmpty()) {
-             product.setName(input.getName());
+             changes.set("name", input.getName());
              updated = true;
          }
          if (input.getDescription() != null && !input.getDescription().isEmpty()) {
-             product.setDescription(input.getDescription());
+             changes.set("description", input.getDescription());
              updated = true;
          }
          if (input.getPrice() != null) {
-             product.setPrice(input.getPrice());
+             changes.set("price", input.getPrice());
              updated = true;
          }
 
          // Allow admin to change ownership (userId)
-         if (isAdmin && input.getUserId() != null && !input.getUserId().isEmpty()
-                 && !input.getUserId().equals(product.getUserId())) {
-             User newOwner = userRepository.findById(input.getUserId())
+         if (isAdmin && input.getUserId() != null && !input.getUserId().isEmpty()) {
+             User newOwner = userCache.findById(input.getUserId())
                      .orElseThrow(() -> new ResourceNotFoundException("New owner user not found."));
-             product.setUserId(newOwner.getId());
+             changes.set("userId", newOwner.getId());
              updated = true;
          }
 
@@ -112,8 +343,16 @@
              throw new IllegalArgumentException("No fields provided to update.");
          }
 
-         Product updatedProduct = productRepository.save(product);
-         return toDTO(updatedProduct);
+         // One findAndModify filtered on the owner (unless admin) and the If-Match versions.
+         Product updatedProduct = productRepository.updateFields(id, isAdmin ? null : caller.getId(), expectedVersions, changes)
+                 .orElseThrow(() -> writeRejected(id, caller, "You don't have permission to modify this product."));
+         eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, updatedProduct.getId()));
+         MediaType format = ResponseFormats.negotiate(accept);
+         return ResponseEntity.ok()
+                 .contentType(format)
+                 .varyBy(HttpHeaders.ACCEPT)
+                 .eTag(etagOf(updatedProduct, format))
+                 .body(ProductDTO.from(updatedProduct));
      }
 
 
@@ -122,48 +361,152 @@
     public String deleteProduct(
             @PathVariable String id,
             Authentication auth) {
-         Product product = productRepository.findById(id)
-                 .orElseThrow(() -> new ResourceNotFoundException("Product not found."));
-
-         // Looks up the authenticated user by email and retrieves their id and role.
-         String userEmail = auth.getName();
-         Optional<User> userOpt = userRepository.findByEmail(userEmail);
-         User user = userOpt
-                 .orElseThrow(() -> new UnauthorizedException("User not authenticated."));
-
-         // Allows the operation only if the authenticated user
-         // is either the owner of the product or an admin.
-         if (!product.getUserId().equals(user.getId()) && !"admin".equalsIgnoreCase(user.getRole())) {
-             throw new ForbiddenException("You don't have permission to delete this product.");
-         }
-
-         productRepository.delete(product);
+         // Allows the operation only if the authenticated user is either the owner of the product or an admin,
+         // checked by the delete filter itself (one findAndRemove). The caller comes from the user cache, as above.
+         User caller = currentUser(auth);
+         boolean isAdmin = "admin".equalsIgnoreCase(caller.getRole());
+         Product product = productRepository.deleteOwned(id, isAdmin ? null : caller.getId())
+                 .orElseThrow(() -> writeRejected(id, caller, "You don't have permission to delete this product."));
+         eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.DELETED, product.getId()));
          return "Product deleted";
      }
 
      // === GET product by user id === //
      @GetMapping("/me")
-     public List<ProductDTO> getMyProducts(Authentication auth) {
-         // Looks up the authenticated user by email and retrieves their id and role.
-         String userEmail = auth.getName();
-         Optional<User> userOpt = userRepository.findByEmail(userEmail);
-         User user = userOpt
-                 .orElseThrow(() -> new UnauthorizedException("User not authenticated."));
+     public List<ProductDTO> getMyProducts(
+             @RequestParam(required = false) String expand,
+             Authentication auth) {
+         boolean withOwner = expandOwner(expand);
+         // Resolves the authenticated user (id and role) from the JWT principal.
+         User user = currentUser(auth);
 
          List<Product> products = productRepository.findByUserId(user.getId());
-         return  products.stream().map(this::toDTO).toList();
+         if (withOwner) {
+             return products.stream().map(product -> ProductDTO.from(product, user)).toList();
+         }
+         return  products.stream().map(ProductDTO::from).toList();
      }
 
      // -------------------------- Helper function ------------------------------------------------- //
-     // Helper method to convert entity to DTO
-     private ProductDTO toDTO (Product product) {
-         ProductDTO dto = new ProductDTO();
-         dto.setId(product.getId());
-         dto.setName(product.getName());
-         dto.setDescription(product.getDescription());
-         dto.setPrice(product.getPrice());
-         dto.setUserId(product.getUserId());
-         return dto;
+     // Helper method to build a strong ETag from the product id, its @Version and the response encoding
+     private static String etagOf(Product product, MediaType format) {
+         return ETags.of(product.getId(), product.getVersion(), format);
+     }
+
+     // Helper method to answer a conditional list request from its ETag; the 304 carries Vary: Accept like the 200
+     private static boolean notModified(WebRequest request, HttpServletResponse response, String etag) {
+         response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+         return request.checkNotModified(etag);
+     }
+
+     // Helper method to explain a conditional write that matched nothing (failure path only): 404, 403 or 412
+     private RuntimeException writeRejected(String id, User caller, String forbiddenMessage) {
+         Optional<Product> product = productRepository.findById(id);
+         if (product.isEmpty()) {
+             return new ResourceNotFoundException("Product not found.");
+         }
+         if (!"admin".equalsIgnoreCase(caller.getRole()) && !caller.getId().equals(product.get().getUserId())) {
+             return new ForbiddenException(forbiddenMessage);
+         }
+         return new PreconditionFailedException("If-Match does not match the current version.");
+     }
+
+     // Helper method to create the writer for that encoding
+     private ProductListWriter listWriter(MediaType format, OutputStream out) throws IOException {
+         if (BinaryObjectMappers.SMILE.equals(format)) {
+             return ProductListWriter.jackson(binaryObjectMappers.smile(), out);
+         }
+         if (BinaryObjectMappers.CBOR.equals(format)) {
+             return ProductListWriter.jackson(binaryObjectMappers.cbor(), out);
+         }
+         if (ProtobufEncoder.PROTOBUF.equals(format)) {
+             return ProductListWriter.protobuf(out);
+         }
+         return ProductListWriter.jackson(objectMapper, out);
+     }
+
+     // Helper method to send the catalog snapshot: as is when the client accepts gzip (virtually all do), else inflated
+     private ResponseEntity<StreamingResponseBody> snapshotResponse(CatalogSnapshot.Snapshot snapshot, WebRequest request) {
+         byte[] gzip = snapshot.gzip();
+         if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+             return ResponseEntity.ok()
+                     .contentType(MediaType.APPLICATION_JSON)
+                     .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                     .header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING)
+                     .contentLength(gzip.length)
+                     .body(out -> out.write(gzip));
+         }
+         StreamingResponseBody body = out -> {
+             try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+                 in.transferTo(out);
+             }
+         };
+         return ResponseEntity.ok()
+                 .contentType(MediaType.APPLICATION_JSON)
+                 .header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING)
+                 .body(body);
+     }
+
+     // Helper method to read Accept-Encoding: gzip (or "*") with a quality above 0; "gzip;q=0" refuses it
+     static boolean acceptsGzip(String acceptEncoding) {
+         if (acceptEncoding == null || acceptEncoding.isBlank()) {
+             return false;
+         }
+         Double gzip = null;
+         Double wildcard = null;
+         for (String entry : acceptEncoding.split(",")) {
+             String[] parts = entry.split(";");
+             String coding = parts[0].trim().toLowerCase();
+             double quality = 1.0;
+             for (int i = 1; i < parts.length; i++) {
+                 String parameter = parts[i].trim();
+                 if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                     try {
+                         quality = Double.parseDouble(parameter.substring(2).trim());
+                     } catch (NumberFormatException e) {
+                         quality = 0;
+                     }
+                 }
+             }
+             if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                 gzip = quality;
+             } else if (coding.equals("*")) {
+                 wildcard = quality;
+             }
+         }
+         // An explicit gzip entry wins over "*"
+         Double quality = (gzip != null) ? gzip : wildcard;
+         return quality != null && quality > 0;
+     }
+
+     // Helper method to read the "expand" parameter; "owner" is the only supported value
+     static boolean expandOwner(String expand) {
+         if (expand == null || expand.isEmpty()) {
+             return false;
+         }
+         if ("owner".equals(expand)) {
+             return true;
+         }
+         throw new IllegalArgumentException("Invalid expand value. Supported: owner.");
+     }
+
+     // Helper method to map products to DTOs; with owners, all distinct owners are resolved together
+     // (cache hits, then one $in query for the misses), never one lookup per product.
+     private List<ProductDTO> toDTOs(List<Product> products, boolean withOwner) {
+         if (!withOwner) {
+             return products.stream().map(ProductDTO::from).toList();
+         }
+         Map<String, User> owners = userCache.getAll(
+                 products.stream().map(Product::getUserId).collect(Collectors.toSet()));
+         return products.stream()
+                 .map(product -> ProductDTO.from(product, owners.get(product.getUserId())))
+                 .toList();
+     }
+
+     // Helper method to resolve the authenticated user through the user cache (no Mongo round-trip on a hit)
+     private User currentUser(Authentication auth) {
+         return userCache.findById(AuthenticatedUser.of(auth).id())
+                 .orElseThrow(() -> new UnauthorizedException("User not authenticated."));
      }
  }
 
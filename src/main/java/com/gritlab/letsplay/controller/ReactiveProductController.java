@@ -0,0 +1,358 @@
+package com.gritlab.letsplay.controller;
+
+import com.gritlab.letsplay.cache.CatalogVersion;
+import com.gritlab.letsplay.event.ProductChangeFeed;
+import com.gritlab.letsplay.event.ProductChangedEvent;
+import com.gritlab.letsplay.exception.GlobalExceptionHandler.*;
+import com.gritlab.letsplay.model.*;
+import com.gritlab.letsplay.repository.ProductFilter;
+import com.gritlab.letsplay.repository.ReactiveProductRepository;
+import com.gritlab.letsplay.repository.ReactiveUserRepository;
+import com.gritlab.letsplay.search.ProductSearchIndex;
+import com.gritlab.letsplay.security.AuthenticatedUser;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static com.gritlab.letsplay.controller.ProductController.DEFAULT_PAGE_SIZE;
+import static com.gritlab.letsplay.controller.ProductController.MAX_PAGE_SIZE;
+import static com.gritlab.letsplay.controller.ProductController.MAX_SEARCH_RESULTS;
+import static com.gritlab.letsplay.controller.ProductController.OWNER_BATCH_SIZE;
+import static com.gritlab.letsplay.controller.ProductController.expandOwner;
+
+/**
+ * Non-blocking /products API for the reactive profile (WebFlux + reactive MongoDB driver).
+ * Same routes, filters, validation, ownership rules, ETags and error shapes as ProductController, with these gaps:
+ * <ul>
+ *   <li>responses are JSON only (no Smile, CBOR or Protobuf negotiation), and the ETags name that encoding;</li>
+ *   <li>GET /products is read from MongoDB every time (no in-memory gzip snapshot), and GET /products/{id} is not
+ *   served from the product cache;</li>
+ *   <li>POST/PUT/DELETE /products/batch are not exposed (ProductBatchController is servlet-only).</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/products")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductController {
+
+    private static final String JSON_SUBTYPE = MediaType.APPLICATION_JSON.getSubtype();
+
+    @Autowired
+    private ReactiveProductRepository productRepository;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProductChangeFeed changeFeed;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    // -------------------------- Public access ------------------------------------------------- //
+    // GET all products (public) / (400 Bad Request if a filter is invalid, 304 Not Modified if ETag matches)
+    // Same filters and sort as ProductController; encoded as a JSON array while the cursor is read.
+    // expand=owner resolves owners with one $in query per batch of 500 products
+    @GetMapping
+    public ResponseEntity<Flux<ProductDTO>> getAllProducts(
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String owner,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String expand) {
+        ProductFilter filter = new ProductFilter(minPrice, maxPrice, name, owner, sort);
+        boolean withOwner = expandOwner(expand);
+        Flux<ProductDTO> products = withOwner
+                ? productRepository.findFiltered(filter).buffer(OWNER_BATCH_SIZE).concatMap(this::withOwners)
+                : productRepository.findFiltered(filter).map(ProductDTO::from);
+        ResponseEntity.BodyBuilder response = json();
+        // Spring answers the 304 from the ETag before the query is subscribed.
+        // Not for expanded responses: owner names can change without a catalog change.
+        if (!withOwner) {
+            response.eTag(catalogVersion.etag() + "-" + filter.cacheKey() + "-" + JSON_SUBTYPE);
+        }
+        return response.body(products);
+    }
+
+    // GET one page of products (public) / (400 Bad Request if cursor, size or a filter is invalid)
+    // Keyset pagination with the same filters as GET /products; pages are always ordered by id.
+    @GetMapping("/page")
+    public ResponseEntity<Mono<ProductPageDTO>> getProductPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String owner,
+            @RequestParam(required = false) String expand) {
+        ProductFilter filter = new ProductFilter(minPrice, maxPrice, name, owner, null);
+        boolean withOwner = expandOwner(expand);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        if (after != null && !ObjectId.isValid(after)) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+
+        // Fetch one extra item to know whether another page exists, without a count query.
+        Mono<ProductPageDTO> page = productRepository.findPageFiltered(filter, after, size + 1)
+                .collectList()
+                .flatMap(products -> {
+                    boolean hasMore = products.size() > size;
+                    List<Product> items = hasMore ? products.subList(0, size) : products;
+                    Flux<ProductDTO> dtos = withOwner
+                            ? withOwners(items)
+                            : Flux.fromIterable(items).map(ProductDTO::from);
+                    return dtos.collectList().map(list -> {
+                        ProductPageDTO result = new ProductPageDTO();
+                        result.setItems(list);
+                        result.setNextCursor(hasMore ? items.get(items.size() - 1).getId() : null);
+                        return result;
+                    });
+                });
+        ResponseEntity.BodyBuilder response = json();
+        if (!withOwner) {
+            response.eTag(catalogVersion.etag() + "-" + filter.cacheKey() + "-" + after + "-" + size + "-" + JSON_SUBTYPE);
+        }
+        return response.body(page);
+    }
+
+    // SEARCH products by keywords in name and description (public) / (400 Bad Request if q or limit is invalid)
+    // Best match first, from the same in-memory index as ProductController.
+    @GetMapping(path = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<ProductDTO> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String expand) {
+        boolean withOwner = expandOwner(expand);
+        if (q.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty.");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_RESULTS + ".");
+        }
+
+        // Ranking comes from the in-memory index; the products themselves are loaded with one $in query.
+        List<String> ids = searchIndex.search(q, limit);
+        return productRepository.findAllById(ids)
+                .collectMap(Product::getId, Function.identity())
+                .flatMapMany(products -> {
+                    List<Product> ranked = ids.stream()
+                            .map(products::get)
+                            .filter(Objects::nonNull)
+                            .toList();
+                    return withOwner ? withOwners(ranked) : Flux.fromIterable(ranked).map(ProductDTO::from);
+                });
+    }
+
+    // STREAM product changes as Server-Sent Events (public), same events and resume rules as ProductController
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ProductChangeFeed.Change>> streamProductChanges(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(name = "lastEventId", required = false) String lastEventIdParam) {
+        String lastEventId = (lastEventIdHeader != null) ? lastEventIdHeader : lastEventIdParam;
+        return Flux.create(sink -> {
+            ProductChangeFeed.Subscription subscription = changeFeed.subscribe(lastEventId, new ProductChangeFeed.Sink() {
+                @Override
+                public void send(ProductChangeFeed.Change change) {
+                    sink.next(ServerSentEvent.builder(change).id(change.id()).event(change.type()).build());
+                }
+
+                @Override
+                public void heartbeat() {
+                    sink.next(ServerSentEvent.<ProductChangeFeed.Change>builder().comment("heartbeat").build());
+                }
+
+                @Override
+                public void close() {
+                    sink.complete();
+                }
+            });
+            sink.onDispose(subscription::close);
+        });
+    }
+
+    // GET single product (public) / (404 Not Found if product does not exist, 304 Not Modified if ETag matches)
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductDTO>> getProductById(
+            @PathVariable String id,
+            @RequestParam(required = false) String expand) {
+        boolean withOwner = expandOwner(expand);
+        Mono<Product> product = productRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Product not found.")));
+        if (!withOwner) {
+            return product.map(found -> json().eTag(etagOf(found)).body(ProductDTO.from(found)));
+        }
+        // No ETag: owner names can change without a product version change.
+        return product.flatMap(found -> userRepository.findById(found.getUserId())
+                .map(owner -> ProductDTO.from(found, owner))
+                .defaultIfEmpty(ProductDTO.from(found)))
+                .map(dto -> json().body(dto));
+    }
+
+    // -------------------------- Need auth ------------------------------------------------- //
+    // === CREATE product (401 Unauthorized if user not authenticated) === //
+    @PostMapping
+    public Mono<ProductDTO> createProduct(
+            @Valid @RequestBody ProductInputDTO input,
+            Authentication auth) {
+        return currentUser(auth)
+                .flatMap(user -> {
+                    Product product = new Product();
+                    product.setName(input.getName());
+                    product.setDescription(input.getDescription());
+                    product.setPrice(input.getPrice());
+                    product.setUserId(user.getId());
+                    return productRepository.save(product);
+                })
+                .doOnNext(saved -> eventPublisher.publishEvent(
+                        new ProductChangedEvent(ProductChangedEvent.Type.CREATED, saved.getId())))
+                .map(ProductDTO::from);
+    }
+
+    // === UPDATE product (ADMIN & product owner) / (412 Precondition Failed if If-Match is not the current ETag) === //
+    // One findAndModify that $sets the changed fields, filtered on the owner (unless admin) and the If-Match versions.
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ProductDTO>> updateProduct(
+            @PathVariable String id,
+            @Valid @RequestBody ProductUpdateDTO input,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication auth) {
+        List<Long> expectedVersions = ETags.versionsOf(ifMatch, id);
+        return currentUser(auth)
+                .flatMap(caller -> changesFor(input, caller)
+                        .flatMap(changes -> productRepository.updateFields(id, ownerFilter(caller), expectedVersions, changes))
+                        .switchIfEmpty(Mono.defer(() ->
+                                writeRejected(id, caller, "You don't have permission to modify this product."))))
+                .doOnNext(saved -> eventPublisher.publishEvent(
+                        new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, saved.getId())))
+                .map(saved -> json().eTag(etagOf(saved)).body(ProductDTO.from(saved)));
+    }
+
+    // === DELETE product (ADMIN & product owner) === //
+    // The ownership check is part of the delete filter (one findAndRemove), as in ProductController.
+    @DeleteMapping("/{id}")
+    public Mono<String> deleteProduct(
+            @PathVariable String id,
+            Authentication auth) {
+        return currentUser(auth)
+                .flatMap(caller -> productRepository.deleteOwned(id, ownerFilter(caller))
+                        .switchIfEmpty(Mono.defer(() ->
+                                writeRejected(id, caller, "You don't have permission to delete this product."))))
+                .doOnNext(deleted -> eventPublisher.publishEvent(
+                        new ProductChangedEvent(ProductChangedEvent.Type.DELETED, deleted.getId())))
+                .thenReturn("Product deleted");
+    }
+
+    // === GET product by user id === //
+    @GetMapping(path = "/me", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<ProductDTO> getMyProducts(
+            @RequestParam(required = false) String expand,
+            Authentication auth) {
+        boolean withOwner = expandOwner(expand);
+        return currentUser(auth)
+                .flatMapMany(user -> productRepository.findByUserId(user.getId())
+                        .map(product -> withOwner ? ProductDTO.from(product, user) : ProductDTO.from(product)));
+    }
+
+    // -------------------------- Helper function ------------------------------------------------- //
+    // Same rules as ProductController.updateProduct: only the given fields, only admins may reassign ownership.
+    private Mono<Update> changesFor(ProductUpdateDTO input, User caller) {
+        Update changes = new Update();
+        boolean updated = false;
+
+        if (input.getName() != null && !input.getName().isEmpty()) {
+            changes.set("name", input.getName());
+            updated = true;
+        }
+        if (input.getDescription() != null && !input.getDescription().isEmpty()) {
+            changes.set("description", input.getDescription());
+            updated = true;
+        }
+        if (input.getPrice() != null) {
+            changes.set("price", input.getPrice());
+            updated = true;
+        }
+
+        // Allow admin to change ownership (userId)
+        if (isAdmin(caller) && input.getUserId() != null && !input.getUserId().isEmpty()) {
+            return userRepository.findById(input.getUserId())
+                    .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("New owner user not found.")))
+                    .map(newOwner -> changes.set("userId", newOwner.getId()));
+        }
+
+        if (!updated) {
+            return Mono.error(new IllegalArgumentException("No fields provided to update."));
+        }
+        return Mono.just(changes);
+    }
+
+    // Helper method to explain a conditional write that matched nothing (failure path only): 404, 403 or 412
+    private Mono<Product> writeRejected(String id, User caller, String forbiddenMessage) {
+        return productRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Product not found.")))
+                .flatMap(product -> Mono.error(!isAdmin(caller) && !caller.getId().equals(product.getUserId())
+                        ? new ForbiddenException(forbiddenMessage)
+                        : new PreconditionFailedException("If-Match does not match the current version.")));
+    }
+
+    // Owner in the write filter: the caller's id, or null (any owner) for admins
+    private static String ownerFilter(User caller) {
+        return isAdmin(caller) ? null : caller.getId();
+    }
+
+    private static boolean isAdmin(User user) {
+        return "admin".equalsIgnoreCase(user.getRole());
+    }
+
+    // Helper method to build a strong ETag from the product id, its @Version and the (JSON) encoding
+    private static String etagOf(Product product) {
+        return ETags.of(product.getId(), product.getVersion(), MediaType.APPLICATION_JSON);
+    }
+
+    // JSON response that caches may keep apart from other encodings of the same URL
+    private static ResponseEntity.BodyBuilder json() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT);
+    }
+
+    // Maps one batch of products, looking up all of its distinct owners in a single query
+    private Flux<ProductDTO> withOwners(List<Product> products) {
+        List<String> ownerIds = products.stream().map(Product::getUserId).distinct().toList();
+        return userRepository.findAllById(ownerIds)
+                .collectMap(User::getId, Function.identity())
+                .flatMapIterable(owners -> products.stream()
+                        .map(product -> ProductDTO.from(product, owners.get(product.getUserId())))
+                        .toList());
+    }
+
+    // Helper method to resolve the authenticated user from the JWT principal
+    private Mono<User> currentUser(Authentication auth) {
+        return Mono.fromCallable(() -> AuthenticatedUser.of(auth).id())
+                .flatMap(userRepository::findById)
+                .switchIfEmpty(Mono.error(() -> new UnauthorizedException("User not authenticated.")));
+    }
+}
@@ -0,0 +1,166 @@
+package com.gritlab.letsplay.controller;
+
+import com.gritlab.letsplay.cache.UserCache;
+import com.gritlab.letsplay.cleanup.ProductCleanup;
+import com.gritlab.letsplay.controller.UserController.LoginResponseDTO;
+import com.gritlab.letsplay.exception.GlobalExceptionHandler.*;
+import com.gritlab.letsplay.model.*;
+import com.gritlab.letsplay.repository.UserRepository;
+import com.gritlab.letsplay.security.AuthenticatedUser;
+import com.gritlab.letsplay.security.PasswordHasher;
+import com.gritlab.letsplay.security.TokenService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import jakarta.validation.Valid;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * /users API for the reactive profile. Same routes, rules and error shapes as UserController, which does the work:
+ * its calls block (MongoDB repository, password hashing), so each one runs on Schedulers.boundedElastic(),
+ * never on a Netty event-loop thread.
+ * The admin-only routes are checked by reactive method security (@PreAuthorize on the returned Mono).
+ * User responses are JSON only in this profile (the Smile/CBOR/Protobuf negotiation is servlet-only), so their
+ * ETags are those of the JSON encoding.
+ */
+@RestController
+@RequestMapping("/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+
+    private final UserController users;
+    private final UserCache userCache;
+    private final UserRepository userRepository;
+
+    public ReactiveUserController(UserRepository userRepository, PasswordHasher passwordHasher, UserCache userCache,
+                                  TokenService tokenService, ProductCleanup productCleanup) {
+        // Not a bean in this profile (servlet only): used as a plain object, behind the checks declared here.
+        this.users = new UserController(userRepository, passwordHasher, userCache, tokenService, productCleanup);
+        this.userCache = userCache;
+        this.userRepository = userRepository;
+    }
+
+    // REGISTER endpoint (409 Conflict if duplicate emails) //
+    @PostMapping("/register")
+    public Mono<String> registerUser(@Valid @RequestBody UserRegistrationDTO userDTO) {
+        return blocking(() -> users.registerUser(userDTO));
+    }
+
+    // LOGIN endpoint (401 Unauthorized if fields are not matched) //
+    @PostMapping("/login")
+    public Mono<ResponseEntity<LoginResponseDTO>> login(@Valid @RequestBody UserLoginDTO loginDTO) {
+        return blocking(() -> users.login(loginDTO));
+    }
+
+    // REFRESH endpoint (401 Unauthorized if the refresh token is invalid, expired or already used) //
+    @PostMapping("/token/refresh")
+    public Mono<ResponseEntity<LoginResponseDTO>> refreshToken(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        return blocking(() -> users.refreshToken(request));
+    }
+
+    // LOGOUT endpoint //
+    @PostMapping("/logout")
+    public Mono<String> logout(
+            @RequestBody(required = false) RefreshTokenRequestDTO request,
+            Authentication auth) {
+        return blocking(() -> users.logout(request, auth));
+    }
+
+// -------------------------- Role: User ------------------------------------------------- //
+    // ---- GET own profile (404 Not Found if not exist, 304 Not Modified if ETag matches) ---- //
+    @GetMapping(value = "/me", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<UserDTO> getMyProfile(Authentication auth, ServerWebExchange exchange) {
+        return blocking(() -> userCache.findById(AuthenticatedUser.of(auth).id())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found.")))
+                .flatMap(user -> notModifiedOr(exchange, user));
+    }
+
+    // ---- UPDATE own profile (404 Not Found if not exist, 400 Bad Request if bad arguments, 412 if If-Match is outdated) ---- //
+    @PutMapping(value = "/me", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> updateMyProfile(
+            @Valid @RequestBody UserUpdateDTO userDTO,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication auth) {
+        return blocking(() -> users.updateMyProfile(userDTO, ifMatch, null, auth));
+    }
+
+    // ---- DELETE own profile (404 Not Found if not exist) ---- //
+    @DeleteMapping("/me")
+    public Mono<String> deleteOwnProfile(Authentication auth) {
+        return blocking(() -> users.deleteOwnProfile(auth));
+    }
+
+// -------------------------- Role: Admin ONLY ------------------------------------------------- //
+    // **** GET all users **** //
+    @PreAuthorize("hasRole('admin')")
+    @GetMapping
+    public Mono<List<UserDTO>> getAllUsers() {
+        return blocking(users::getAllUsers);
+    }
+
+    // **** GET user by id (404 Not Found if not exist, 304 Not Modified if ETag matches) **** //
+    @PreAuthorize("hasRole('admin')")
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<UserDTO> getUser(@PathVariable String id, ServerWebExchange exchange) {
+        return blocking(() -> userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id)))
+                .flatMap(user -> notModifiedOr(exchange, user));
+    }
+
+    // **** CREATE user (409 Conflict if duplicate emails) **** //
+    @PreAuthorize("hasRole('admin')")
+    @PostMapping
+    public Mono<UserDTO> createUser(@Valid @RequestBody UserRegistrationDTO userDTO) {
+        return blocking(() -> users.createUser(userDTO));
+    }
+
+    // **** UPDATE user by id (404 Not Found if not exist, 400 Bad Request if bad arguments, 412 if If-Match is outdated) **** //
+    @PreAuthorize("hasRole('admin')")
+    @PutMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<UserDTO>> updateUser(
+            @PathVariable String id,
+            @RequestBody UserUpdateDTO userDTO,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return blocking(() -> users.updateUser(id, userDTO, ifMatch, null));
+    }
+
+    // **** DELETE user by id (404 Not Found if not exist, 400 Bad Request if reassignTo is the same user) **** //
+    @PreAuthorize("hasRole('admin')")
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteUser(
+            @PathVariable String id,
+            @RequestParam(required = false) String reassignTo) {
+        return blocking(() -> users.deleteUser(id, reassignTo));
+    }
+
+    // **** GET progress of a product cleanup job (404 Not Found if not exist) **** //
+    @PreAuthorize("hasRole('admin')")
+    @GetMapping("/cleanup-jobs/{jobId}")
+    public Mono<ProductCleanupJobDTO> getCleanupJob(@PathVariable String jobId) {
+        return blocking(() -> users.getCleanupJob(jobId));
+    }
+
+    // -------------------------- Helper function ------------------------------------------------- //
+    // Runs a blocking call off the event loop
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Empty (304, set by checkNotModified) if the client's If-None-Match is the current ETag
+    private static Mono<UserDTO> notModifiedOr(ServerWebExchange exchange, User user) {
+        exchange.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCEPT));
+        if (exchange.checkNotModified(ETags.of(user.getId(), user.getVersion(), MediaType.APPLICATION_JSON))) {
+            return Mono.empty();
+        }
+        return Mono.just(UserDTO.from(user));
+    }
+}
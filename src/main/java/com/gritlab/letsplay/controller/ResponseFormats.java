@@ -0,0 +1,54 @@
+package com.gritlab.letsplay.controller;
+
+import com.gritlab.letsplay.codec.BinaryObjectMappers;
+import com.gritlab.letsplay.codec.ProtobufEncoder;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Encodings of the DTO responses (JSON, Smile, CBOR, Protobuf), negotiated with Accept. The controllers set the
+// chosen one as Content-Type, put it in the ETag (ETags.of with a format) and send Vary: Accept, so caches keep
+// one entry per encoding and a 304 never revalidates an entry held in another one.
+final class ResponseFormats {
+
+    // JSON first: "*/*" and "application/*" get JSON
+    private static final List<MediaType> SUPPORTED = List.of(MediaType.APPLICATION_JSON, BinaryObjectMappers.SMILE,
+            BinaryObjectMappers.CBOR, ProtobufEncoder.PROTOBUF);
+
+    private ResponseFormats() {
+    }
+
+    // The supported type the client prefers (highest q, then the most specific range, then header order), JSON by
+    // default. A type sent with q=0 is never picked, even by "*/*".
+    static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (IllegalArgumentException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        // Stable sort: equally preferred ranges keep their order in the header
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+                .thenComparing(mediaType -> mediaType.isWildcardType() ? 2 : mediaType.isWildcardSubtype() ? 1 : 0));
+        List<MediaType> allowed = new ArrayList<>(SUPPORTED);
+        allowed.removeIf(type -> accepted.stream()
+                .anyMatch(mediaType -> mediaType.getQualityValue() == 0 && mediaType.equalsTypeAndSubtype(type)));
+
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) {
+                break;
+            }
+            for (MediaType type : allowed) {
+                if (mediaType.includes(type)) {
+                    return type;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+}
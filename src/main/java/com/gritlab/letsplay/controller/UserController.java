@@ -1,55 +1,80 @@
 package com.gritlab.letsplay.controller;
 
+import com.gritlab.letsplay.cache.UserCache;
+import com.gritlab.letsplay.cleanup.ProductCleanup;
+import com.gritlab.letsplay.codec.ProtobufEncoder;
 import com.gritlab.letsplay.exception.GlobalExceptionHandler.*;
+import com.gritlab.letsplay.security.AuthenticatedUser;
+import com.gritlab.letsplay.security.PasswordHasher;
+import com.gritlab.letsplay.security.TokenService;
+import com.gritlab.letsplay.security.TokenService.TokenPair;
 import org.springframework.security.authentication.BadCredentialsException;
 import com.gritlab.letsplay.model.*;
 import com.gritlab.letsplay.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import java.util.Date;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
 @RestController
 @RequestMapping("/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)  // reactive profile: ReactiveUserController
 public class UserController {
 
+    private static final Logger log = LoggerFactory.getLogger(UserController.class);
+
     @Autowired
     private final UserRepository userRepository;
 
     @Autowired
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    @Autowired
+    private final UserCache userCache;
 
-    public UserController(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    @Autowired
+    private final TokenService tokenService;
+
+    @Autowired
+    private final ProductCleanup productCleanup;
+
+    public UserController(UserRepository userRepository, PasswordHasher passwordHasher, UserCache userCache,
+                          TokenService tokenService, ProductCleanup productCleanup) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.userCache = userCache;
+        this.tokenService = tokenService;
+        this.productCleanup = productCleanup;
     }
 
-    public record LoginResponseDTO(String token, String message) {
+    public record LoginResponseDTO(String token, String refreshToken, String message) {
     }
     /*
     The traditional Java class structure for above LoginResponseDTO
     public static class LoginResponseDTO {
         private final String token;
+        private final String refreshToken;
         private final String message;
 
-        public LoginResponseDTO(String token, String message) {
+        public LoginResponseDTO(String token, String refreshToken, String message) {
             this.token = token;
+            this.refreshToken = refreshToken;
             this.message = message;
         }
         public String getToken() { return token; }
+        public String getRefreshToken() { return refreshToken; }
         public String getMessage() { return message; }
     }
      */
@@ -61,7 +86,7 @@ public class UserController {
             throw new UserAlreadyExistsException();
         }
         // Passwords are always hashed before saving.
-        String hashedPassword = passwordEncoder.encode(userDTO.getPassword());
+        String hashedPassword = passwordHasher.encode(userDTO.getPassword());
 
         User user = new User();
         user.setName(userDTO.getName());
@@ -76,64 +101,77 @@ public class UserController {
     // LOGIN endpoint (401 Unauthorized if fields are not matched) ========================================== //
     @PostMapping("/login")
     public ResponseEntity<LoginResponseDTO> login(@Valid @RequestBody UserLoginDTO loginDTO) {
-        System.out.println("[DEBUG] Entered UserController.login for " + loginDTO.getEmail());
+        log.atDebug().addKeyValue("email", loginDTO.getEmail()).log("Login attempt");
 
         Optional<User> userOpt = userRepository.findByEmail(loginDTO.getEmail());
         User user = userOpt
                 .orElseThrow(() -> new BadCredentialsException("Invalid authentication credentials."));
 
-        if (!passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(loginDTO.getPassword(), user.getPassword())) {
             throw new BadCredentialsException("Invalid authentication credentials.");
         }
+        passwordHasher.upgradeIfNeeded(user, loginDTO.getPassword());
+
+        TokenPair tokens = tokenService.issue(user);
+
+        return ResponseEntity.ok(new LoginResponseDTO(tokens.accessToken(), tokens.refreshToken(), "Login successful!"));
+    }
 
-        // Token details
-        long expirationMs = 86400000; // 1 day
-        String jwt = Jwts.builder()
-                .setSubject(user.getEmail())
-                .claim("role", user.getRole())
-                .claim("userId", user.getId())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(SignatureAlgorithm.HS256, jwtSecret)
-                .compact();
-
-        return ResponseEntity.ok(new LoginResponseDTO(jwt, "Login successful!"));
+    // REFRESH endpoint (401 Unauthorized if the refresh token is invalid, expired or already used) ===================== //
+    // Exchanges a refresh token for a new access token and a new refresh token; the old refresh token stops working.
+    @PostMapping("/token/refresh")
+    public ResponseEntity<LoginResponseDTO> refreshToken(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        TokenPair tokens = tokenService.refresh(request.getRefreshToken());
+        return ResponseEntity.ok(new LoginResponseDTO(tokens.accessToken(), tokens.refreshToken(), "Token refreshed."));
+    }
+
+    // LOGOUT endpoint: revokes the current access token, and the session of the refresh token if one is sent ====== //
+    @PostMapping("/logout")
+    public String logout(
+            @RequestBody(required = false) RefreshTokenRequestDTO request,
+            Authentication auth) {
+        tokenService.logout(AuthenticatedUser.of(auth), (request != null) ? request.getRefreshToken() : null);
+        return "Logged out";
     }
 // -------------------------- Role: User ------------------------------------------------- //
-    // ---- GET own profile (404 Not Found if not exist) ---- //
+    // ---- GET own profile (404 Not Found if not exist, 304 Not Modified if ETag matches) ---- //
     @GetMapping("/me")
-    public UserDTO getMyProfile(Authentication auth) {
-        String userEmail = auth.getName();
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
+    public ResponseEntity<UserDTO> getMyProfile(
+            Authentication auth,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        String userId = AuthenticatedUser.of(auth).id();
+        Optional<User> userOpt = userCache.findById(userId);
         User user = userOpt
                 .orElseThrow(() -> new ResourceNotFoundException("User not found."));
-        return toDTO(user);
+        return userResponse(user, ResponseFormats.negotiate(accept)).body(UserDTO.from(user));
     }
 
-    // ---- UPDATE own profile (404 Not Found if not exist, 400 Bad Request if bad arguments) ---- //
+    // ---- UPDATE own profile (404 Not Found if not exist, 400 Bad Request if bad arguments, 412 if If-Match is outdated) ---- //
     @PutMapping("/me")
     public ResponseEntity<Object> updateMyProfile(
             @Valid @RequestBody UserUpdateDTO userDTO,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
             Authentication auth) {
 
-        String userEmail = auth.getName(); // usually the username/email
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
-        User user = userOpt
-                .orElseThrow(() -> new ResourceNotFoundException("User not found."));
-
+        String userId = AuthenticatedUser.of(auth).id();
+        // Parsed first: a malformed or foreign If-Match is rejected before any password is hashed.
+        List<Long> expectedVersions = ETags.versionsOf(ifMatch, userId);
+        // Only the changed fields are written ($set), conditional on the If-Match version if one is sent.
+        Update changes = new Update();
         boolean updated = false;
         boolean passwordChanged = false;
 
         // Only update name if provided
         if (userDTO.getName() != null && !userDTO.getName().isEmpty()) {
-            user.setName(userDTO.getName());
+            changes.set("name", userDTO.getName());
             updated = true;
         }
 
         // Only update password if present and not empty
         if (userDTO.getPassword() != null && !userDTO.getPassword().isEmpty()) {
-            String hashedPassword = passwordEncoder.encode(userDTO.getPassword());
-            user.setPassword(hashedPassword);
+            String hashedPassword = passwordHasher.encode(userDTO.getPassword());
+            changes.set("password", hashedPassword);
             updated = true;
             passwordChanged = true;
         }
@@ -142,28 +180,41 @@ public class UserController {
             throw new IllegalArgumentException("No fields provided to update.");
         }
 
-        user = userRepository.save(user);
+        User user = applyUpdate(userId, expectedVersions, changes);
+        MediaType format = ResponseFormats.negotiate(accept);
 
         if (passwordChanged) {
-            return ResponseEntity.ok(Map.of(
-                    "user", toDTO(user),
+            // Other sessions must log in again with the new password.
+            tokenService.revokeAllForUser(user.getId());
+            if (ProtobufEncoder.PROTOBUF.equals(format)) {
+                format = MediaType.APPLICATION_JSON;  // letsplay.proto has no message for this wrapper
+            }
+            return userResponse(user, format).body(Map.of(
+                    "user", UserDTO.from(user),
                     "message", "Password changed successfully."
             ));
         } else {
-            return ResponseEntity.ok(toDTO(user));
+            return userResponse(user, format).body(UserDTO.from(user));
         }
     }
 
     // ---- DELETE own profile (404 Not Found if not exist) ---- //
+    // The user's products are deleted in the background. The cleanup job is not exposed: the caller's session ends
+    // with the account, and only admins read cleanup jobs.
     @DeleteMapping("/me")
     public String deleteOwnProfile(Authentication auth) {
-        String userEmail = auth.getName();
+        String userId = AuthenticatedUser.of(auth).id();
 
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
+        Optional<User> userOpt = userCache.findById(userId);
         User user = userOpt
                 .orElseThrow(() -> new ResourceNotFoundException("User not found."));
 
+        // The job is recorded first: if the delete below fails or the process dies, no products are orphaned.
+        productCleanup.deleteProductsOf(user.getId());
         userRepository.deleteById(user.getId());
+        userCache.invalidate(user.getId());
+        tokenService.revokeAllForUser(user.getId());
+        productCleanup.start();
         return "User deleted";
     }
 
@@ -173,17 +224,20 @@ public class UserController {
     @GetMapping
     public List<UserDTO> getAllUsers() {
         List<User> users = userRepository.findAll();
-        return users.stream().map(this::toDTO).toList();
+        return users.stream().map(UserDTO::from).toList();
         // returning a list of DTOs from a list of users
     }
 
-    // **** GET user by id (404 Not Found if not exist) **** //
+    // **** GET user by id (404 Not Found if not exist, 304 Not Modified if ETag matches) **** //
     @PreAuthorize("hasRole('admin')")
     @GetMapping("/{id}")
-    public UserDTO getUser(@PathVariable String id) {
+    public ResponseEntity<UserDTO> getUser(
+            @PathVariable String id,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
         Optional<User> userOpt = userRepository.findById(id);
-        return userOpt.map(this::toDTO)
+        User user = userOpt
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        return userResponse(user, ResponseFormats.negotiate(accept)).body(UserDTO.from(user));
     }
 
     // **** CREATE user (409 Conflict if duplicate emails) **** //
@@ -195,7 +249,7 @@ public class UserController {
             throw new UserAlreadyExistsException();
         }
         // Hash plaintext password from registration DTO
-        String hashedPassword = passwordEncoder.encode(userDTO.getPassword());
+        String hashedPassword = passwordHasher.encode(userDTO.getPassword());
 
         User user = new User();
         user.setName(userDTO.getName());
@@ -204,62 +258,109 @@ public class UserController {
         user.setRole("user"); // Always default 'user'
 
         user = userRepository.save(user);
-        return toDTO(user);
+        return UserDTO.from(user);
     }
 
-    // **** UPDATE user by id (404 Not Found if not exist, 400 Bad Request if bad arguments) **** //
+    // **** UPDATE user by id (404 Not Found if not exist, 400 Bad Request if bad arguments, 412 if If-Match is outdated) **** //
     @PreAuthorize("hasRole('admin')")
     @PutMapping("/{id}")
-    public UserDTO updateUser(
+    public ResponseEntity<UserDTO> updateUser(
             @PathVariable String id,
-            @RequestBody UserUpdateDTO userDTO) {
-
-        Optional<User> userOpt = userRepository.findById(id);
-        User user = userOpt
-                .orElseThrow(() -> new ResourceNotFoundException("User not found."));
+            @RequestBody UserUpdateDTO userDTO,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
 
+        // Parsed first: a malformed or foreign If-Match is rejected before any password is hashed.
+        List<Long> expectedVersions = ETags.versionsOf(ifMatch, id);
+        Update changes = new Update();
         boolean updated = false;
 
         // Only update name if provided
         if (userDTO.getName() != null && !userDTO.getName().isEmpty()) {
-            user.setName(userDTO.getName());
+            changes.set("name", userDTO.getName());
             updated = true;
         }
 
         // Only update password if provided
+        boolean passwordChanged = false;
         if (userDTO.getPassword() != null && !userDTO.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+            changes.set("password", passwordHasher.encode(userDTO.getPassword()));
             updated = true;
+            passwordChanged = true;
         }
 
         if (!updated) {
             throw new IllegalArgumentException("No fields provided to update.");
         }
 
-        user = userRepository.save(user);
-        return toDTO(user);
+        User user = applyUpdate(id, expectedVersions, changes);
+        if (passwordChanged) {
+            tokenService.revokeAllForUser(user.getId());
+        }
+        return userResponse(user, ResponseFormats.negotiate(accept)).body(UserDTO.from(user));
     }
 
-    // **** DELETE user by id (404 Not Found if not exist) **** //
+    // **** DELETE user by id (404 Not Found if not exist, 400 Bad Request if reassignTo is the same user) **** //
+    // The user's products are deleted, or moved to "reassignTo", by a background job; Location points to its progress.
     @PreAuthorize("hasRole('admin')")
     @DeleteMapping("/{id}")
-    public String deleteUser(@PathVariable String id) {
+    public ResponseEntity<String> deleteUser(
+            @PathVariable String id,
+            @RequestParam(required = false) String reassignTo) {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found.");
         }
+        if (reassignTo != null) {
+            if (reassignTo.equals(id)) {
+                throw new IllegalArgumentException("Products cannot be reassigned to the deleted user.");
+            }
+            if (!userRepository.existsById(reassignTo)) {
+                throw new ResourceNotFoundException("New owner user not found.");
+            }
+        }
 
+        // The job is recorded first: if the delete below fails or the process dies, no products are orphaned.
+        ProductCleanupJob job = (reassignTo != null)
+                ? productCleanup.reassignProductsOf(id, reassignTo)
+                : productCleanup.deleteProductsOf(id);
         userRepository.deleteById(id);
-        return "User deleted";
+        userCache.invalidate(id);
+        tokenService.revokeAllForUser(id);
+        productCleanup.start();
+        return ResponseEntity.ok()
+                .location(URI.create("/users/cleanup-jobs/" + job.getId()))
+                .body("User deleted");
+    }
+
+    // **** GET progress of a product cleanup job (404 Not Found if not exist) **** //
+    @PreAuthorize("hasRole('admin')")
+    @GetMapping("/cleanup-jobs/{jobId}")
+    public ProductCleanupJobDTO getCleanupJob(@PathVariable String jobId) {
+        return productCleanup.findJob(jobId)
+                .map(ProductCleanupJobDTO::from)
+                .orElseThrow(() -> new ResourceNotFoundException("Cleanup job not found."));
+    }
+
+    // Helper method to write the changed fields in one round-trip; only a failed write costs a second query,
+    // to tell a missing user (404) from an outdated If-Match version (412).
+    private User applyUpdate(String id, List<Long> expectedVersions, Update changes) {
+        Optional<User> updated = userRepository.updateFields(id, expectedVersions, changes);
+        if (updated.isEmpty()) {
+            if (!userRepository.existsById(id)) {
+                throw new ResourceNotFoundException("User not found.");
+            }
+            throw new PreconditionFailedException("If-Match does not match the current version.");
+        }
+        userCache.invalidate(id);
+        return updated.get();
     }
 
-    // -------------------------- Helper function ------------------------------------------------- //
-    // Helper method to convert entity to DTO
-    private UserDTO toDTO (User user) {
-        UserDTO dto = new UserDTO();
-        dto.setId(user.getId());
-        dto.setName(user.getName());
-        dto.setEmail(user.getEmail());
-        dto.setRole(user.getRole());
-        return dto;
+    // Helper method to start a response in the negotiated encoding, with the ETag of the user's version in that encoding.
+    // On a GET, Spring answers 304 from that ETag (If-None-Match) without serializing the body.
+    private static ResponseEntity.BodyBuilder userResponse(User user, MediaType format) {
+        return ResponseEntity.ok()
+                .contentType(format)
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(ETags.of(user.getId(), user.getVersion(), format));
     }
-}
\ No newline at end of file
+}
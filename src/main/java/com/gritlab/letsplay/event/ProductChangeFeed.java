@@ -0,0 +1,247 @@
+package com.gritlab.letsplay.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.gritlab.letsplay.model.Product;
+import com.gritlab.letsplay.model.ProductDTO;
+import com.gritlab.letsplay.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Feed of product changes behind GET /products/events (Server-Sent Events).
+ *
+ * ProductChangedEvents are collected and turned into changes every 100 ms, off the request thread: one $in query
+ * loads the current state of the created/updated products. Changes are numbered, kept in a ring buffer of the last
+ * buffer-size changes and pushed to every subscriber.
+ *
+ * Change ids are "epoch-sequence". A client reconnecting with Last-Event-ID gets the changes it missed, or a "reset"
+ * change (refetch the catalog) when they are no longer buffered or the process restarted.
+ * Every subscriber has its own bounded queue; one that falls that far behind is disconnected and catches up on reconnect.
+ */
+@Component
+public class ProductChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeFeed.class);
+    private static final Change HEARTBEAT = new Change(null, "heartbeat", null, null);
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Change(String id, String type, String productId, ProductDTO product) {
+    }
+
+    // Delivers changes to one client; calls come from one sender thread at a time.
+    public interface Sink {
+        void send(Change change) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    private final ProductRepository productRepository;
+    private final long epoch = System.currentTimeMillis();  // a restarted process never resumes old ids
+    private final Change[] buffer;
+    private long lastSequence;  // guarded by this
+
+    private final Queue<ProductChangedEvent> pending = new ConcurrentLinkedQueue<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "product-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders;
+
+    public ProductChangeFeed(ProductRepository productRepository,
+                             @Value("${products.events.buffer-size:1000}") int bufferSize,
+                             @Value("${products.events.sender-threads:4}") int senderThreads) {
+        this.productRepository = productRepository;
+        this.buffer = new Change[bufferSize];
+        this.senders = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread thread = new Thread(r, "product-change-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        publisher.scheduleWithFixedDelay(this::flush, 100, 100, TimeUnit.MILLISECONDS);
+        publisher.scheduleWithFixedDelay(this::heartbeat, 15, 15, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        publisher.shutdownNow();
+        senders.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.sink.close());
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        pending.add(event);
+    }
+
+    // -------------------------- Subscribers ------------------------------------------------- //
+    // Starts after "lastEventId" when given (replaying buffered changes), otherwise with the next change.
+    public synchronized Subscription subscribe(String lastEventId, Sink sink) {
+        Subscription subscription = new Subscription(sink);
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            long from = sequenceOf(lastEventId);
+            if (from < 0 || from > lastSequence || lastSequence - from > buffer.length) {
+                subscription.offer(new Change(epoch + "-" + lastSequence, "reset", null, null));
+            } else {
+                for (long sequence = from + 1; sequence <= lastSequence; sequence++) {
+                    subscription.offer(buffer[(int) (sequence % buffer.length)]);
+                }
+            }
+        }
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    // -1 for a malformed id or an id from another process
+    private long sequenceOf(String eventId) {
+        int dash = eventId.indexOf('-');
+        try {
+            if (dash < 0 || Long.parseLong(eventId.substring(0, dash)) != epoch) {
+                return -1;
+            }
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // -------------------------- Publishing ------------------------------------------------- //
+    private void flush() {
+        try {
+            List<ProductChangedEvent> events = new ArrayList<>();
+            for (ProductChangedEvent event; (event = pending.poll()) != null; ) {
+                events.add(event);
+            }
+            if (events.isEmpty()) {
+                return;
+            }
+
+            Set<String> changedIds = new HashSet<>();
+            for (ProductChangedEvent event : events) {
+                if (event.type() != ProductChangedEvent.Type.DELETED) {
+                    changedIds.add(event.productId());
+                }
+            }
+            Map<String, Product> products = new HashMap<>();
+            if (!changedIds.isEmpty()) {
+                productRepository.findAllById(changedIds).forEach(product -> products.put(product.getId(), product));
+            }
+
+            for (ProductChangedEvent event : events) {
+                Product product = products.get(event.productId());
+                if (event.type() == ProductChangedEvent.Type.DELETED || product == null) {
+                    append("deleted", event.productId(), null);
+                } else {
+                    append(event.type() == ProductChangedEvent.Type.CREATED ? "created" : "updated",
+                            event.productId(), ProductDTO.from(product));
+                }
+            }
+        } catch (Exception e) {
+            log.atWarn().setCause(e).log("Product change feed flush failed");
+        }
+    }
+
+    private synchronized void append(String type, String productId, ProductDTO product) {
+        long sequence = ++lastSequence;
+        Change change = new Change(epoch + "-" + sequence, type, productId, product);
+        buffer[(int) (sequence % buffer.length)] = change;
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(change);
+        }
+    }
+
+    // Keeps idle connections open through proxies and detects clients that went away.
+    private void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(HEARTBEAT);
+        }
+    }
+
+    public final class Subscription {
+
+        private final Sink sink;
+        private final BlockingQueue<Change> queue = new ArrayBlockingQueue<>(buffer.length + 1);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscription(Sink sink) {
+            this.sink = sink;
+        }
+
+        private void offer(Change change) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(change)) {
+                // Too slow: the client reconnects with Last-Event-ID and replays what it missed.
+                close();
+                sink.close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Change change;
+                while (!closed && (change = queue.poll()) != null) {
+                    if (change == HEARTBEAT) {
+                        sink.heartbeat();
+                    } else {
+                        sink.send(change);
+                    }
+                }
+            } catch (Exception e) {
+                close();
+                sink.close();
+            } finally {
+                draining.set(false);
+            }
+            // A change offered while the loop was finishing would otherwise wait for the next one.
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.gritlab.letsplay.event;
+
+/**
+ * Published after a product is created, updated or deleted,
+ * so in-process caches and views can react to the write.
+ */
+public record ProductChangedEvent(Type type, String productId) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+}
@@ -3,13 +3,19 @@ package com.gritlab.letsplay.exception;
 import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.web.servlet.NoHandlerFoundException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
 
 import java.util.Map;
 import java.util.HashMap;
@@ -77,6 +83,67 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    /**
+     * Reactive profile: same as handleValidationException, for @Valid failures in WebFlux controllers.
+     * Status: 400 Bad Request
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleReactiveValidationException(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getFieldErrors().forEach(error ->
+                errors.put(error.getField(), error.getDefaultMessage()));
+        return ResponseEntity.badRequest().body(Map.of(
+                "status", "error",
+                "message", "Validation failed",
+                "fields", errors
+        ));
+    }
+
+    /**
+     * Reactive profile: same as handleNotReadable and handleTypeMismatch, for WebFlux input errors
+     * (malformed body, unknown/forbidden fields, unconvertible parameters).
+     * Status: 400 Bad Request
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<Object> handleReactiveInput(ServerWebInputException ex) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof UnrecognizedPropertyException unrecognized) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "status", "error",
+                        "message", unrecognized.getPropertyName() + " update is forbidden."
+                ));
+            }
+        }
+        return ResponseEntity.badRequest().body(Map.of(
+                "status", "error",
+                "message", "Malformed or missing request body"
+        ));
+    }
+
+    /**
+     * Handles query/path parameters that cannot be converted to the expected type (e.g. size=abc).
+     * Status: 400 Bad Request
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Object> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return ResponseEntity.badRequest().body(Map.of(
+                "status", "error",
+                "message", "Invalid value for parameter '" + ex.getName() + "'."
+        ));
+    }
+
+    /**
+     * Handles missing required query parameters (e.g. GET /products/search without q).
+     * Status: 400 Bad Request
+     */
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<Object> handleMissingParameter(MissingServletRequestParameterException ex) {
+        return ResponseEntity.badRequest().body(Map.of(
+                "status", "error",
+                "message", "Missing required parameter '" + ex.getParameterName() + "'."
+        ));
+    }
+
 
     // === 3. Routing and HTTP Method errors ===
 
@@ -178,8 +245,42 @@ public class GlobalExceptionHandler {
                 .body(Map.of("status", "error", "message", ex.getMessage()));
     }
 
+    /**
+     * Custom: Handles requests shed because a bounded resource is saturated (e.g. the password hashing pool).
+     * Status: 429 Too Many Requests, with Retry-After
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Object> handleTooManyRequests(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("status", "error", "message", ex.getMessage()));
+    }
+
     // === 6. Application/domain-specific logic errors ===
 
+    /**
+     * Handles writes made against an outdated version: an If-Match ETag that is no longer current.
+     * Status: 412 Precondition Failed
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Object> handlePreconditionFailed(PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(Map.of("status", "error",
+                        "message", "The resource was modified by another request. Reload it and retry."));
+    }
+
+    /**
+     * Handles a save or delete of a versioned document (@Version, e.g. Product) that lost the race
+     * with a concurrent write, when the client sent no If-Match (there was no precondition to fail).
+     * Status: 409 Conflict
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleConcurrentUpdate(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("status", "error",
+                        "message", "The resource was modified by another request. Reload it and retry."));
+    }
+
     /**
      * Custom: Handles already registered user (duplicates).
      * Status: 409 Conflict
@@ -256,5 +357,21 @@ public class GlobalExceptionHandler {
     public static class ForbiddenException extends RuntimeException {
         public ForbiddenException(String message) { super(message); }
     }
+
+    /** Used when the If-Match ETag of a write does not match the current version. */
+    public static class PreconditionFailedException extends RuntimeException {
+        public PreconditionFailedException(String message) { super(message); }
+    }
+
+    /** Used when a request is rejected to protect a saturated resource; clients may retry after the given delay. */
+    public static class TooManyRequestsException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        public TooManyRequestsException(String message, long retryAfterSeconds) {
+            super(message);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+        public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    }
 }
 
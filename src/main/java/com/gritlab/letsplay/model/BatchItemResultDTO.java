@@ -0,0 +1,46 @@
+// For the outcome of one item of a bulk request
+
+package com.gritlab.letsplay.model;
+
+public class BatchItemResultDTO {
+
+    private int index;       // Position of the item in the request array
+    private String id;       // Product id, when known
+    private int status;      // HTTP-style status of this item (201, 200, 400, 403, 404, 409, 424)
+    private String message;
+
+    public BatchItemResultDTO (int index, String id, int status, String message) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    // Getters
+    public int getIndex () {
+        return index;
+    }
+    public String getId () {
+        return id;
+    }
+    public int getStatus () {
+        return status;
+    }
+    public String getMessage () {
+        return message;
+    }
+
+    // Setters
+    public void setIndex (int index) {
+        this.index = index;
+    }
+    public void setId (String id) {
+        this.id = id;
+    }
+    public void setStatus (int status) {
+        this.status = status;
+    }
+    public void setMessage (String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,34 @@
+// For the per-item report of a bulk request
+
+package com.gritlab.letsplay.model;
+
+import java.util.List;
+
+public class BatchResultDTO {
+
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResultDTO> items;  // One entry per request item, in request order
+
+    // Getters
+    public int getSucceeded () {
+        return succeeded;
+    }
+    public int getFailed () {
+        return failed;
+    }
+    public List<BatchItemResultDTO> getItems () {
+        return items;
+    }
+
+    // Setters
+    public void setSucceeded (int succeeded) {
+        this.succeeded = succeeded;
+    }
+    public void setFailed (int failed) {
+        this.failed = failed;
+    }
+    public void setItems (List<BatchItemResultDTO> items) {
+        this.items = items;
+    }
+}
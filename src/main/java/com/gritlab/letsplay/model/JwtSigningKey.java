@@ -0,0 +1,56 @@
+package com.gritlab.letsplay.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// ES256 key pair of the JWT key ring, shared by all nodes. The private key is encrypted (jwt.keys.encryption-key, see JwtKeyRing).
+@Document(collection = "jwt_signing_keys")
+public class JwtSigningKey {
+    @Id
+    private String id;  // "kid" header of the tokens signed with this key
+
+    private String privateKey;  // PKCS#8, AES-GCM encrypted: "v1:" + Base64 (plain Base64 if stored before encryption)
+    private String publicKey;   // X.509 SubjectPublicKeyInfo, Base64
+
+    private Instant activatesAt;  // Published (JWKS) before it signs anything, so every verifier knows it in time
+
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;  // After the last token it signed has expired
+
+    // Getters
+    public String getId () {
+        return id;
+    }
+    public String getPrivateKey () {
+        return privateKey;
+    }
+    public String getPublicKey () {
+        return publicKey;
+    }
+    public Instant getActivatesAt () {
+        return activatesAt;
+    }
+    public Instant getExpiresAt () {
+        return expiresAt;
+    }
+
+    // Setters
+    public void setId (String id) {
+        this.id = id;
+    }
+    public void setPrivateKey (String privateKey) {
+        this.privateKey = privateKey;
+    }
+    public void setPublicKey (String publicKey) {
+        this.publicKey = publicKey;
+    }
+    public void setActivatesAt (Instant activatesAt) {
+        this.activatesAt = activatesAt;
+    }
+    public void setExpiresAt (Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,31 @@
+// Public owner info embedded in ProductDTO with ?expand=owner (no email, no role)
+
+package com.gritlab.letsplay.model;
+
+public class OwnerSummaryDTO {
+    private String id;
+    private String name;
+
+    public static OwnerSummaryDTO from (User user) {
+        OwnerSummaryDTO dto = new OwnerSummaryDTO();
+        dto.setId(user.getId());
+        dto.setName(user.getName());
+        return dto;
+    }
+
+    // Getters
+    public String getId () {
+        return id;
+    }
+    public String getName () {
+        return name;
+    }
+
+    // Setters
+    public void setId (String id) {
+        this.id = id;
+    }
+    public void setName (String name) {
+        this.name = name;
+    }
+}
@@ -1,6 +1,9 @@
 package com.gritlab.letsplay.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -8,6 +11,11 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 @Document(collection = "products")
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_price", def = "{'userId': 1, 'price': 1}"),  // owner filter (+ price), findByUserId
+        @CompoundIndex(name = "price_id", def = "{'price': 1, '_id': 1}"),         // price range and price sort
+        @CompoundIndex(name = "name_id", def = "{'name': 1, '_id': 1}")            // name prefix and name sort
+})
 public class Product {
     @Id
     private String id;  // MongoDB auto-generates this
@@ -27,6 +35,9 @@ public class Product {
     @NotNull
     private String userId;  // ID of the owner
 
+    @Version
+    private Long version;  // Incremented by Spring Data on every save, used for ETags
+
     // Getters
     public String getId () { return id; }
     public String getName () {
@@ -41,6 +52,9 @@ public class Product {
     public String getUserId () {
         return userId;
     }
+    public Long getVersion () {
+        return version;
+    }
 
     // Setters
     public void setId (String id) {
@@ -58,6 +72,9 @@ public class Product {
     public void setUserId (String userId) {
         this.userId = userId;
     }
+    public void setVersion (Long version) {
+        this.version = version;
+    }
 }
 
 /*
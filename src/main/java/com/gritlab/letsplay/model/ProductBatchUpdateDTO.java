@@ -0,0 +1,21 @@
+// For one item of a bulk product update (PUT /products/batch)
+
+package com.gritlab.letsplay.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class ProductBatchUpdateDTO extends ProductUpdateDTO {
+
+    @NotBlank
+    private String id;  // ID of the product to update
+
+    // Getters
+    public String getId () {
+        return id;
+    }
+
+    // Setters
+    public void setId (String id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,138 @@
+package com.gritlab.letsplay.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Background removal (or reassignment) of a deleted user's products; progress is saved after every batch.
+// A worker claims the job with a lease (leaseOwner until leaseExpiresAt); a FAILED job with a nextAttemptAt is retried then.
+@Document(collection = "product_cleanup_jobs")
+public class ProductCleanupJob {
+
+    public enum Action { DELETE, REASSIGN }
+
+    public enum Status { PENDING, RUNNING, COMPLETED, FAILED }
+
+    @Id
+    private String id;
+
+    @Indexed
+    private String userId;      // Deleted user whose products are cleaned up
+
+    private Action action;
+
+    private String reassignTo;  // New owner, only for REASSIGN
+
+    @Indexed
+    private Status status;
+
+    private long total;         // Products owned by the user when the job started
+    private long processed;     // Products deleted or reassigned so far
+
+    private String error;       // Last failure, only for FAILED (generic: the cause is in the server logs)
+
+    private int attempts;             // Failed runs so far
+    private Instant nextAttemptAt;    // When a PENDING or FAILED job may run; null once FAILED for good
+    private String leaseOwner;        // Instance running the job (RUNNING only)
+    private Instant leaseExpiresAt;   // After this, another instance may take over a RUNNING job
+
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant finishedAt;
+
+    // Getters
+    public String getId () {
+        return id;
+    }
+    public String getUserId () {
+        return userId;
+    }
+    public Action getAction () {
+        return action;
+    }
+    public String getReassignTo () {
+        return reassignTo;
+    }
+    public Status getStatus () {
+        return status;
+    }
+    public long getTotal () {
+        return total;
+    }
+    public long getProcessed () {
+        return processed;
+    }
+    public String getError () {
+        return error;
+    }
+    public Instant getCreatedAt () {
+        return createdAt;
+    }
+    public Instant getUpdatedAt () {
+        return updatedAt;
+    }
+    public Instant getFinishedAt () {
+        return finishedAt;
+    }
+    public int getAttempts () {
+        return attempts;
+    }
+    public Instant getNextAttemptAt () {
+        return nextAttemptAt;
+    }
+    public String getLeaseOwner () {
+        return leaseOwner;
+    }
+    public Instant getLeaseExpiresAt () {
+        return leaseExpiresAt;
+    }
+
+    // Setters
+    public void setId (String id) {
+        this.id = id;
+    }
+    public void setUserId (String userId) {
+        this.userId = userId;
+    }
+    public void setAction (Action action) {
+        this.action = action;
+    }
+    public void setReassignTo (String reassignTo) {
+        this.reassignTo = reassignTo;
+    }
+    public void setStatus (Status status) {
+        this.status = status;
+    }
+    public void setTotal (long total) {
+        this.total = total;
+    }
+    public void setProcessed (long processed) {
+        this.processed = processed;
+    }
+    public void setError (String error) {
+        this.error = error;
+    }
+    public void setCreatedAt (Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    public void setUpdatedAt (Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    public void setFinishedAt (Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    public void setAttempts (int attempts) {
+        this.attempts = attempts;
+    }
+    public void setNextAttemptAt (Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    public void setLeaseOwner (String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+    public void setLeaseExpiresAt (Instant leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+}
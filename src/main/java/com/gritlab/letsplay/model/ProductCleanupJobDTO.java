@@ -0,0 +1,57 @@
+// Progress of a product cleanup job as returned by the API (no lease, retry or error details)
+
+package com.gritlab.letsplay.model;
+
+import java.time.Instant;
+
+public class ProductCleanupJobDTO {
+    private String id;
+    private ProductCleanupJob.Status status;
+    private long total;
+    private long processed;
+    private Instant finishedAt;
+
+    public static ProductCleanupJobDTO from (ProductCleanupJob job) {
+        ProductCleanupJobDTO dto = new ProductCleanupJobDTO();
+        dto.setId(job.getId());
+        dto.setStatus(job.getStatus());
+        dto.setTotal(job.getTotal());
+        dto.setProcessed(job.getProcessed());
+        dto.setFinishedAt(job.getFinishedAt());
+        return dto;
+    }
+
+    // Getters
+    public String getId () {
+        return id;
+    }
+    public ProductCleanupJob.Status getStatus () {
+        return status;
+    }
+    public long getTotal () {
+        return total;
+    }
+    public long getProcessed () {
+        return processed;
+    }
+    public Instant getFinishedAt () {
+        return finishedAt;
+    }
+
+    // Setters
+    public void setId (String id) {
+        this.id = id;
+    }
+    public void setStatus (ProductCleanupJob.Status status) {
+        this.status = status;
+    }
+    public void setTotal (long total) {
+        this.total = total;
+    }
+    public void setProcessed (long processed) {
+        this.processed = processed;
+    }
+    public void setFinishedAt (Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
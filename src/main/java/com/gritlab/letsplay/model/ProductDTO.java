@@ -2,6 +2,8 @@
 
 package com.gritlab.letsplay.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class ProductDTO {
 
     private String id;  // MongoDB auto-generates this
@@ -10,6 +12,29 @@ public class ProductDTO {
     private Double price;
     private String userId;  // ID of the owner
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private OwnerSummaryDTO owner;  // Only with ?expand=owner
+
+    // Maps a product entity to its API representation
+    public static ProductDTO from (Product product) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        dto.setUserId(product.getUserId());
+        return dto;
+    }
+
+    // Same, with the owner summary embedded (owner may be null if the user no longer exists)
+    public static ProductDTO from (Product product, User owner) {
+        ProductDTO dto = from(product);
+        if (owner != null) {
+            dto.setOwner(OwnerSummaryDTO.from(owner));
+        }
+        return dto;
+    }
+
     // Getters
     public String getId () {
         return id;
@@ -26,6 +51,9 @@ public class ProductDTO {
     public String getUserId () {
         return userId;
     }
+    public OwnerSummaryDTO getOwner () {
+        return owner;
+    }
 
     // Setters
     public void setId (String id) {
@@ -43,4 +71,7 @@ public class ProductDTO {
     public void setUserId (String userId) {
         this.userId = userId;
     }
+    public void setOwner (OwnerSummaryDTO owner) {
+        this.owner = owner;
+    }
 }
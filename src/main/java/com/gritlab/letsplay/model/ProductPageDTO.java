@@ -0,0 +1,27 @@
+// For a page of products (keyset pagination on product id)
+
+package com.gritlab.letsplay.model;
+
+import java.util.List;
+
+public class ProductPageDTO {
+
+    private List<ProductDTO> items;
+    private String nextCursor;  // id of the last item, null when there are no more pages
+
+    // Getters
+    public List<ProductDTO> getItems () {
+        return items;
+    }
+    public String getNextCursor () {
+        return nextCursor;
+    }
+
+    // Setters
+    public void setItems (List<ProductDTO> items) {
+        this.items = items;
+    }
+    public void setNextCursor (String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,76 @@
+package com.gritlab.letsplay.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Refresh token record; only the SHA-256 of the token is stored, never the token itself.
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    private String tokenHash;
+
+    @Indexed
+    private String userId;
+
+    @Indexed
+    private String familyId;  // Shared by all tokens rotated from the same login
+
+    private Instant createdAt;
+
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;  // MongoDB removes the document at this time (TTL index)
+
+    private Instant rotatedAt;  // Set once the token has been exchanged; a second use means it was stolen
+
+    // Getters
+    public String getId () {
+        return id;
+    }
+    public String getTokenHash () {
+        return tokenHash;
+    }
+    public String getUserId () {
+        return userId;
+    }
+    public String getFamilyId () {
+        return familyId;
+    }
+    public Instant getCreatedAt () {
+        return createdAt;
+    }
+    public Instant getExpiresAt () {
+        return expiresAt;
+    }
+    public Instant getRotatedAt () {
+        return rotatedAt;
+    }
+
+    // Setters
+    public void setId (String id) {
+        this.id = id;
+    }
+    public void setTokenHash (String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+    public void setUserId (String userId) {
+        this.userId = userId;
+    }
+    public void setFamilyId (String familyId) {
+        this.familyId = familyId;
+    }
+    public void setCreatedAt (Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    public void setExpiresAt (Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    public void setRotatedAt (Instant rotatedAt) {
+        this.rotatedAt = rotatedAt;
+    }
+}
@@ -0,0 +1,20 @@
+// For POST /users/token/refresh and POST /users/logout
+
+package com.gritlab.letsplay.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class RefreshTokenRequestDTO {
+    @NotBlank
+    private String refreshToken;
+
+    // Getters
+    public String getRefreshToken () {
+        return refreshToken;
+    }
+
+    // Setters
+    public void setRefreshToken (String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,42 @@
+package com.gritlab.letsplay.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Revoked access token (by jti), kept until the token would have expired; loaded into TokenRevocations on every node.
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    @Id
+    private String id;  // jti of the access token
+
+    @Indexed
+    private Instant revokedAt;
+
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+
+    // Getters
+    public String getId () {
+        return id;
+    }
+    public Instant getRevokedAt () {
+        return revokedAt;
+    }
+    public Instant getExpiresAt () {
+        return expiresAt;
+    }
+
+    // Setters
+    public void setId (String id) {
+        this.id = id;
+    }
+    public void setRevokedAt (Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+    public void setExpiresAt (Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
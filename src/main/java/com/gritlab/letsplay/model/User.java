@@ -1,6 +1,7 @@
 package com.gritlab.letsplay.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 
@@ -13,6 +14,9 @@ public class User {
     private String password;
     private String role;
 
+    @Version
+    private Long version;  // Incremented by Spring Data on every save, used for ETags and If-Match
+
     // Getters
     public String getId () {
         return id;
@@ -29,6 +33,9 @@ public class User {
     public String getRole () {
         return role;
     }
+    public Long getVersion () {
+        return version;
+    }
 
     // Setters
     public void setId (String id) {
@@ -46,6 +53,9 @@ public class User {
     public void setRole (String role) {
         this.role = role;
     }
+    public void setVersion (Long version) {
+        this.version = version;
+    }
 }
 
 /*
@@ -7,6 +7,16 @@ public class UserDTO {
     private String email;
     private String role;
 
+    // Maps a user entity to its API representation (never includes the password hash)
+    public static UserDTO from (User user) {
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setName(user.getName());
+        dto.setEmail(user.getEmail());
+        dto.setRole(user.getRole());
+        return dto;
+    }
+
     // Getters
     public String getId () {
         return id;
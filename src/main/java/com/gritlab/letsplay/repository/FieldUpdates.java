@@ -0,0 +1,51 @@
+package com.gritlab.letsplay.repository;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Optional;
+
+// Shared findAndModify behind the updateFields fragments: only the changed fields travel, and the new
+// document comes back in the same round-trip.
+final class FieldUpdates {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private FieldUpdates() {
+    }
+
+    static <T> Optional<T> apply(MongoTemplate mongoTemplate, Class<T> type, Criteria filter,
+                                 Collection<Long> expectedVersions, Update changes) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(query(filter, expectedVersions), versioned(changes),
+                RETURN_NEW, type));
+    }
+
+    // Same write for the reactive driver (empty Mono when nothing matched)
+    static <T> Mono<T> apply(ReactiveMongoTemplate mongoTemplate, Class<T> type, Criteria filter,
+                             Collection<Long> expectedVersions, Update changes) {
+        return mongoTemplate.findAndModify(query(filter, expectedVersions), versioned(changes), RETURN_NEW, type);
+    }
+
+    static <T> Optional<T> apply(MongoTemplate mongoTemplate, Class<T> type, String id,
+                                 Collection<Long> expectedVersions, Update changes) {
+        return apply(mongoTemplate, type, Criteria.where("id").is(id), expectedVersions, changes);
+    }
+
+    private static Query query(Criteria filter, Collection<Long> expectedVersions) {
+        if (expectedVersions != null) {
+            filter = filter.and("version").in(expectedVersions);
+        }
+        return new Query(filter);
+    }
+
+    // Keeps @Version meaningful: ETags change and save()-based writers see the conflict.
+    private static Update versioned(Update changes) {
+        return changes.inc("version", 1);
+    }
+}
@@ -0,0 +1,101 @@
+package com.gritlab.letsplay.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Server-side filters and sort order for product listings (GET /products query parameters).
+ * Every filter is optional; each one is backed by an index declared on Product.
+ */
+public record ProductFilter(Double minPrice, Double maxPrice, String namePrefix, String ownerId, String sort) {
+
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "name", "price");
+
+    public ProductFilter {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice.");
+        }
+        if (namePrefix != null && namePrefix.isEmpty()) {
+            namePrefix = null;
+        }
+        if (ownerId != null && ownerId.isEmpty()) {
+            ownerId = null;
+        }
+        if (sort != null && sort.isEmpty()) {
+            sort = null;
+        }
+        if (sort != null) {
+            parseSort(sort); // fail fast on an unsupported sort
+        }
+    }
+
+    public Criteria toCriteria() {
+        List<Criteria> criteria = new ArrayList<>();
+        if (ownerId != null) {
+            criteria.add(Criteria.where("userId").is(ownerId));
+        }
+        if (minPrice != null || maxPrice != null) {
+            Criteria price = Criteria.where("price");
+            if (minPrice != null) {
+                price = price.gte(minPrice);
+            }
+            if (maxPrice != null) {
+                price = price.lte(maxPrice);
+            }
+            criteria.add(price);
+        }
+        if (namePrefix != null) {
+            // Anchored, case-sensitive and escaped, so MongoDB can answer it from the name index.
+            criteria.add(Criteria.where("name").regex("^" + escapeRegex(namePrefix)));
+        }
+        return criteria.isEmpty() ? new Criteria() : new Criteria().andOperator(criteria);
+    }
+
+    // "field" or "field,asc|desc" on id, name or price; ties are broken by id so the order is stable.
+    public Sort toSort() {
+        return (sort == null) ? Sort.by("id") : parseSort(sort);
+    }
+
+    // True for the plain catalog listing: no filter and the default order.
+    public boolean isUnfiltered() {
+        return minPrice == null && maxPrice == null && namePrefix == null && ownerId == null && sort == null;
+    }
+
+    // Short, header-safe key identifying this filter (used in collection ETags).
+    public String cacheKey() {
+        String key = minPrice + "|" + maxPrice + "|" + namePrefix + "|" + ownerId + "|" + sort;
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static Sort parseSort(String sort) {
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!SORTABLE_FIELDS.contains(field) || parts.length > 2) {
+            throw new IllegalArgumentException("Sort must be one of id, name, price, optionally followed by ,asc or ,desc.");
+        }
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length == 2) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new IllegalArgumentException("Sort direction must be asc or desc."));
+        }
+        Sort order = Sort.by(direction, field);
+        return field.equals("id") ? order : order.and(Sort.by("id"));
+    }
+
+    private static String escapeRegex(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (char c : text.toCharArray()) {
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
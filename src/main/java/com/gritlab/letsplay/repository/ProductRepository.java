@@ -4,6 +4,6 @@ import com.gritlab.letsplay.model.Product;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.List;
 
-public interface ProductRepository extends MongoRepository<Product, String> {
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
     List<Product> findByUserId(String userId);
-}
\ No newline at end of file
+}
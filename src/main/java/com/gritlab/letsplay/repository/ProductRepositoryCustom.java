@@ -0,0 +1,28 @@
+package com.gritlab.letsplay.repository;
+
+import com.gritlab.letsplay.model.Product;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Custom fragment of ProductRepository for queries that derived methods cannot express.
+public interface ProductRepositoryCustom {
+
+    // Backed by a MongoDB cursor; the caller must close the stream.
+    Stream<Product> streamFiltered(ProductFilter filter);
+
+    // Keyset pagination on _id: up to "limit" products after the given id (or from the start if null).
+    List<Product> findPageFiltered(ProductFilter filter, String afterId, int limit);
+
+    // Applies "changes" ($set of the changed fields) and bumps the version in one findAndModify, returning the
+    // updated product. Only matches a product owned by "ownerId" and one of "expectedVersions" when they are given
+    // (null means any); empty if the product is missing, owned by someone else or was modified.
+    Optional<Product> updateFields(String id, String ownerId, Collection<Long> expectedVersions, Update changes);
+
+    // Deletes the product in one findAndRemove if it is owned by "ownerId" (any owner when null), returning it
+    // (id only); empty if the product is missing or owned by someone else.
+    Optional<Product> deleteOwned(String id, String ownerId);
+}
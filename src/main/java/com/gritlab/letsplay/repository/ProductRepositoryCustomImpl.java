@@ -0,0 +1,77 @@
+package com.gritlab.letsplay.repository;
+
+import com.gritlab.letsplay.model.Product;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ProductRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Stream<Product> streamFiltered(ProductFilter filter) {
+        Query query = listQuery(filter.toCriteria())
+                .with(filter.toSort())
+                .cursorBatchSize(500);
+        return mongoTemplate.stream(query, Product.class);
+    }
+
+    @Override
+    public List<Product> findPageFiltered(ProductFilter filter, String afterId, int limit) {
+        return mongoTemplate.find(pageQuery(filter, afterId, limit), Product.class);
+    }
+
+    @Override
+    public Optional<Product> updateFields(String id, String ownerId, Collection<Long> expectedVersions, Update changes) {
+        return FieldUpdates.apply(mongoTemplate, Product.class, ownedBy(id, ownerId), expectedVersions, changes);
+    }
+
+    @Override
+    public Optional<Product> deleteOwned(String id, String ownerId) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(deleteQuery(id, ownerId), Product.class));
+    }
+
+    // The ownership check is part of the write filter: _id, plus userId unless any owner is allowed (admins).
+    static Criteria ownedBy(String id, String ownerId) {
+        Criteria criteria = Criteria.where("id").is(id);
+        return (ownerId != null) ? criteria.and("userId").is(ownerId) : criteria;
+    }
+
+    // Only the id of the deleted product is returned
+    static Query deleteQuery(String id, String ownerId) {
+        Query query = new Query(ownedBy(id, ownerId));
+        query.fields().include("id");
+        return query;
+    }
+
+    // Keyset pagination on _id, after the filter
+    static Query pageQuery(ProductFilter filter, String afterId, int limit) {
+        Criteria criteria = filter.toCriteria();
+        if (afterId != null) {
+            criteria = new Criteria().andOperator(criteria, Criteria.where("id").gt(new ObjectId(afterId)));
+        }
+        return listQuery(criteria)
+                .with(Sort.by("id"))
+                .limit(limit);
+    }
+
+    // List responses only need the ProductDTO fields, so nothing else is read from MongoDB.
+    static Query listQuery(Criteria criteria) {
+        Query query = new Query(criteria);
+        query.fields().include("name", "description", "price", "userId");
+        return query;
+    }
+}
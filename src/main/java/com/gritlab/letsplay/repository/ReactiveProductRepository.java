@@ -0,0 +1,10 @@
+package com.gritlab.letsplay.repository;
+
+import com.gritlab.letsplay.model.Product;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+// Non-blocking counterpart of ProductRepository, used by the reactive profile.
+public interface ReactiveProductRepository extends ReactiveMongoRepository<Product, String>, ReactiveProductRepositoryCustom {
+    Flux<Product> findByUserId(String userId);
+}
@@ -0,0 +1,25 @@
+package com.gritlab.letsplay.repository;
+
+import com.gritlab.letsplay.model.Product;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+// Custom fragment of ReactiveProductRepository: the queries and conditional writes of ProductRepositoryCustom,
+// on the reactive driver.
+public interface ReactiveProductRepositoryCustom {
+
+    // Filtered and sorted listing, read from a cursor as it is consumed.
+    Flux<Product> findFiltered(ProductFilter filter);
+
+    // Keyset pagination on _id: up to "limit" products after the given id (or from the start if null).
+    Flux<Product> findPageFiltered(ProductFilter filter, String afterId, int limit);
+
+    // Same rules as ProductRepositoryCustom.updateFields; empty if nothing matched.
+    Mono<Product> updateFields(String id, String ownerId, Collection<Long> expectedVersions, Update changes);
+
+    // Same rules as ProductRepositoryCustom.deleteOwned; empty if nothing matched.
+    Mono<Product> deleteOwned(String id, String ownerId);
+}
@@ -0,0 +1,44 @@
+package com.gritlab.letsplay.repository;
+
+import com.gritlab.letsplay.model.Product;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+import static com.gritlab.letsplay.repository.ProductRepositoryCustomImpl.deleteQuery;
+import static com.gritlab.letsplay.repository.ProductRepositoryCustomImpl.listQuery;
+import static com.gritlab.letsplay.repository.ProductRepositoryCustomImpl.ownedBy;
+import static com.gritlab.letsplay.repository.ProductRepositoryCustomImpl.pageQuery;
+
+// Builds the same queries as ProductRepositoryCustomImpl, so both profiles list and write products alike.
+public class ReactiveProductRepositoryCustomImpl implements ReactiveProductRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveProductRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Flux<Product> findFiltered(ProductFilter filter) {
+        return mongoTemplate.find(listQuery(filter.toCriteria()).with(filter.toSort()).cursorBatchSize(500), Product.class);
+    }
+
+    @Override
+    public Flux<Product> findPageFiltered(ProductFilter filter, String afterId, int limit) {
+        return mongoTemplate.find(pageQuery(filter, afterId, limit), Product.class);
+    }
+
+    @Override
+    public Mono<Product> updateFields(String id, String ownerId, Collection<Long> expectedVersions, Update changes) {
+        return FieldUpdates.apply(mongoTemplate, Product.class, ownedBy(id, ownerId), expectedVersions, changes);
+    }
+
+    @Override
+    public Mono<Product> deleteOwned(String id, String ownerId) {
+        return mongoTemplate.findAndRemove(deleteQuery(id, ownerId), Product.class);
+    }
+}
@@ -0,0 +1,8 @@
+package com.gritlab.letsplay.repository;
+
+import com.gritlab.letsplay.model.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+// Non-blocking counterpart of UserRepository, used by the reactive profile.
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+}
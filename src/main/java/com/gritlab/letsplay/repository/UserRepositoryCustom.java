@@ -0,0 +1,15 @@
+package com.gritlab.letsplay.repository;
+
+import com.gritlab.letsplay.model.User;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.Optional;
+
+// Custom fragment of UserRepository for field-level writes.
+public interface UserRepositoryCustom {
+
+    // Applies "changes" ($set of the changed fields) and bumps the version in one findAndModify, returning the
+    // updated user. Only matches one of "expectedVersions" when given; empty if the user is missing or was modified.
+    Optional<User> updateFields(String id, Collection<Long> expectedVersions, Update changes);
+}
@@ -0,0 +1,22 @@
+package com.gritlab.letsplay.repository;
+
+import com.gritlab.letsplay.model.User;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public UserRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<User> updateFields(String id, Collection<Long> expectedVersions, Update changes) {
+        return FieldUpdates.apply(mongoTemplate, User.class, id, expectedVersions, changes);
+    }
+}
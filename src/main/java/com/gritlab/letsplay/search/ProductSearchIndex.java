@@ -0,0 +1,328 @@
+package com.gritlab.letsplay.search;
+
+import com.gritlab.letsplay.event.ProductChangedEvent;
+import com.gritlab.letsplay.model.Product;
+import com.gritlab.letsplay.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over Product.name and Product.description, ranked with BM25.
+ *
+ * Built in the background once the application is ready, then kept up to date from ProductChangedEvent:
+ * changed ids are collected and reloaded in batches (one $in query) off the request thread.
+ * Queries match exact terms, prefixes and, for unknown terms, near misses (1-2 typos, same first letter).
+ * Writers are serialized; searches never lock.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int NAME_WEIGHT = 3;       // a name hit counts as three description hits
+    private static final double K1 = 1.2;           // BM25 term-frequency saturation
+    private static final double B = 0.75;           // BM25 length normalization
+    private static final double PREFIX_WEIGHT = 0.7;
+    private static final double FUZZY_WEIGHT = 0.5;
+    private static final int MAX_EXPANSIONS = 50;   // prefix terms considered per query term
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final long REFRESH_INTERVAL_MILLIS = 200;
+    private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "at", "by", "for", "from", "in", "of", "on", "or", "the", "to", "with");
+
+    private final ProductRepository productRepository;
+    private final MongoTemplate mongoTemplate;
+
+    // term -> (product id -> weighted term frequency)
+    private final ConcurrentSkipListMap<String, Map<String, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<String, IndexedDoc> docs = new ConcurrentHashMap<>();
+    private final AtomicLong totalLength = new AtomicLong();
+
+    private final Set<String> pendingIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean built;
+    // Failed runs back off while MongoDB is unavailable (refresher thread only)
+    private int failures;
+    private long retryAt;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "product-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductSearchIndex(ProductRepository productRepository, MongoTemplate mongoTemplate) {
+        this.productRepository = productRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // -------------------------- Maintenance ------------------------------------------------- //
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresher.execute(this::rebuild);
+        refresher.scheduleWithFixedDelay(this::applyPendingChanges, REFRESH_INTERVAL_MILLIS, REFRESH_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            remove(event.productId());
+        }
+        // Reloaded in the next batch; for deletes this also covers a create/update still waiting in the queue.
+        pendingIds.add(event.productId());
+    }
+
+    private void rebuild() {
+        Query query = new Query();
+        query.fields().include("name", "description");
+        query.cursorBatchSize(1000);
+        try (Stream<Product> products = mongoTemplate.stream(query, Product.class)) {
+            products.forEach(this::index);
+            built = true;
+            succeeded();
+        } catch (Exception e) {
+            failed(e, "Product search index build failed");
+        }
+    }
+
+    // Must not throw: a scheduled task that throws is never run again.
+    private void applyPendingChanges() {
+        if (failures > 0 && System.nanoTime() - retryAt < 0) {
+            return;  // backing off after a failure
+        }
+        if (!built) {
+            rebuild();  // the first build failed: retry it
+            return;
+        }
+        if (pendingIds.isEmpty()) {
+            return;
+        }
+        Set<String> ids = new HashSet<>();
+        // Removed one by one: an id changed again meanwhile is re-added and picked up next time.
+        for (String id : pendingIds) {
+            pendingIds.remove(id);
+            ids.add(id);
+        }
+        try {
+            Set<String> missing = new HashSet<>(ids);
+            for (Product product : productRepository.findAllById(ids)) {
+                index(product);
+                missing.remove(product.getId());
+            }
+            missing.forEach(this::remove);
+            succeeded();
+        } catch (Exception e) {
+            pendingIds.addAll(ids);  // retried on the next run
+            failed(e, "Product search index update failed");
+        }
+    }
+
+    // Retries wait one tick, doubled on every consecutive failure (capped at a minute). Only the first failure
+    // is logged as a warning (the next ones at debug), then the recovery, so an outage does not flood the log.
+    private void failed(Exception e, String message) {
+        failures++;
+        long delay = Math.min(REFRESH_INTERVAL_MILLIS << Math.min(failures - 1, 20), MAX_RETRY_DELAY_MILLIS);
+        retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+        if (failures == 1) {
+            log.atWarn().setCause(e).log(message + "; retrying with backoff");
+        } else {
+            log.atDebug().setCause(e).addKeyValue("failures", failures).log(message);
+        }
+    }
+
+    private void succeeded() {
+        if (failures > 0) {
+            log.atInfo().addKeyValue("failures", failures).log("Product search index recovered");
+            failures = 0;
+        }
+    }
+
+    synchronized void index(Product product) {
+        remove(product.getId());
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : tokenize(product.getName())) {
+            frequencies.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(product.getDescription())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(product.getId(), frequency));
+        docs.put(product.getId(), new IndexedDoc(frequencies.keySet(), length));
+        totalLength.addAndGet(length);
+    }
+
+    synchronized void remove(String productId) {
+        IndexedDoc previous = docs.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        totalLength.addAndGet(-previous.length());
+        for (String term : previous.terms()) {
+            Map<String, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    // -------------------------- Search ------------------------------------------------- //
+    // Returns up to "limit" product ids, best match first.
+    public List<String> search(String query, int limit) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        int documentCount = Math.max(1, docs.size());
+        double averageLength = Math.max(1.0, (double) totalLength.get() / documentCount);
+
+        Map<String, Double> scores = new HashMap<>();
+        for (String queryTerm : queryTerms) {
+            for (Map.Entry<String, Double> expansion : expand(queryTerm).entrySet()) {
+                Map<String, Integer> posting = postings.get(expansion.getKey());
+                if (posting == null || posting.isEmpty()) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<String, Integer> hit : posting.entrySet()) {
+                    IndexedDoc doc = docs.get(hit.getKey());
+                    if (doc == null) {
+                        continue;
+                    }
+                    double tf = hit.getValue();
+                    double saturated = tf * (K1 + 1) / (tf + K1 * (1 - B + B * doc.length() / averageLength));
+                    scores.merge(hit.getKey(), expansion.getValue() * idf * saturated, Double::sum);
+                }
+            }
+        }
+
+        // Keep the best "limit" scores in a min-heap, then return them best first.
+        PriorityQueue<Map.Entry<String, Double>> best = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<String, Double> score : scores.entrySet()) {
+            best.offer(score);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<String> ids = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ids.add(best.poll().getKey());
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    // Exact term, then prefix completions, then (only for unknown terms) near misses.
+    private Map<String, Double> expand(String term) {
+        Map<String, Double> expansions = new HashMap<>();
+        if (postings.containsKey(term)) {
+            expansions.put(term, 1.0);
+        }
+        int added = 0;
+        for (String candidate : postings.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+            if (added++ >= MAX_EXPANSIONS) {
+                break;
+            }
+            expansions.putIfAbsent(candidate, PREFIX_WEIGHT);
+        }
+        if (expansions.isEmpty() && term.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = term.length() >= 8 ? 2 : 1;
+            String first = term.substring(0, 1);
+            for (String candidate : postings.subMap(first, true, first + Character.MAX_VALUE, false).keySet()) {
+                if (Math.abs(candidate.length() - term.length()) <= maxEdits
+                        && withinEditDistance(term, candidate, maxEdits)) {
+                    expansions.put(candidate, FUZZY_WEIGHT);
+                }
+            }
+        }
+        return expansions;
+    }
+
+    // Lowercased letter/digit runs, without stop words and single characters.
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = (i < text.length()) ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (!current.isEmpty()) {
+                String token = current.toString();
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                current.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    // Levenshtein distance <= maxEdits, abandoning a row as soon as it cannot get back under the bound.
+    static boolean withinEditDistance(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = (a.charAt(i - 1) == b.charAt(j - 1)) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    private record IndexedDoc(Set<String> terms, int length) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.gritlab.letsplay.security;
+
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+
+import java.security.Principal;
+
+/**
+ * Principal published by JwtAuthenticationFilter, built from the JWT claims
+ * (subject = email, "userId" and "role" claims), so controllers do not need
+ * to look the user up by email to know who is calling.
+ * tokenId (jti) and tokenExpiresAt identify the access token itself, e.g. to revoke it on logout.
+ */
+public record AuthenticatedUser(String id, String email, String role, String tokenId, long tokenExpiresAt)
+        implements Principal {
+
+    // auth.getName() keeps returning the email, as before.
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean isAdmin() {
+        return "admin".equalsIgnoreCase(role);
+    }
+
+    public static AuthenticatedUser of(Authentication auth) {
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        throw new AuthenticationCredentialsNotFoundException("Authentication required. Please log in.");
+    }
+}
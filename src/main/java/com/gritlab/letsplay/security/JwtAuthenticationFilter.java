@@ -1,11 +1,9 @@
 package com.gritlab.letsplay.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 import jakarta.servlet.FilterChain;
@@ -13,44 +11,38 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final String jwtSecret;
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
-    public JwtAuthenticationFilter(String jwtSecret) {
-        this.jwtSecret = jwtSecret;
+    private final JwtTokenVerifier jwtTokenVerifier;
+
+    public JwtAuthenticationFilter(JwtTokenVerifier jwtTokenVerifier) {
+        this.jwtTokenVerifier = jwtTokenVerifier;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        System.out.println("[DEBUG] JwtAuthenticationFilter: Filtering " + request.getRequestURI());
         String header = request.getHeader("Authorization");
         if (header == null || !header.startsWith("Bearer ")) {
             throw new AuthenticationCredentialsNotFoundException("Authentication required. Please log in.");
         }
         String token = header.substring(7);
         try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(jwtSecret)
-                    .parseClaimsJws(token)
-                    .getBody();
-            String username = claims.getSubject();
-            String role = (String) claims.get("role");
-            List<GrantedAuthority> authorities = new ArrayList<>();
-            if (username != null) {
-                if (role != null) {
-                    authorities.add(new SimpleGrantedAuthority("ROLE_" + role.toLowerCase()));
-                }
-                UsernamePasswordAuthenticationToken auth =
-                        new UsernamePasswordAuthenticationToken(username, null, authorities);
-                SecurityContextHolder.getContext().setAuthentication(auth);
-                System.out.println("[DEBUG] Setting authorities: " + authorities);
-            }
+            // Parsing and signature checks are cached per token until it expires.
+            UsernamePasswordAuthenticationToken auth = jwtTokenVerifier.verify(token);
+            SecurityContextHolder.getContext().setAuthentication(auth);
+            log.atDebug()
+                    .addKeyValue("path", request.getRequestURI())
+                    .addKeyValue("authorities", auth.getAuthorities())
+                    .log("Authenticated request");
         } catch (Exception e) {
+            log.atDebug()
+                    .addKeyValue("path", request.getRequestURI())
+                    .addKeyValue("reason", e.getMessage())
+                    .log("Rejected bearer token");
             throw new AuthenticationCredentialsNotFoundException("Authentication required. Please log in.");
         }
         filterChain.doFilter(request, response);
@@ -67,14 +59,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 (path.equals("/users/login") || path.equals("/users/register"))) {
             isPublic = true;
         }
+        // Token refresh authenticates with the refresh token in the body, not a bearer token
+        if (method.equals("POST") && path.equals("/users/token/refresh")) {
+            isPublic = true;
+        }
         // All GET /products* EXCEPT /products/me is public
         if (method.equals("GET")
                 && path.startsWith("/products")
                 && !path.equals("/products/me")) {
             isPublic = true;
         }
+        // Health probe and the public signing keys are public
+        if (method.equals("GET") && (path.equals("/actuator/health") || path.equals("/.well-known/jwks.json"))) {
+            isPublic = true;
+        }
 
-        System.out.println("[DEBUG][FILTER] method=" + method + ", path=" + path + ", isPublic=" + isPublic);
+        log.atTrace()
+                .addKeyValue("method", method)
+                .addKeyValue("path", path)
+                .addKeyValue("public", isPublic)
+                .log("Filter decision");
         return isPublic;
     }
 }
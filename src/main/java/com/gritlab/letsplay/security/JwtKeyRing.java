@@ -0,0 +1,197 @@
+package com.gritlab.letsplay.security;
+
+import com.gritlab.letsplay.model.JwtSigningKey;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.LocatorAdapter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The ES256 keys tokens are signed and verified with, decoded once per kid.
+ * Signing uses the newest active key; verification accepts any key of the ring, located by the token's kid header.
+ * The ring is replaced as a whole by {@link #load(List)} (see JwtKeyRotation), so lookups never lock.
+ *
+ * Private keys are stored encrypted (AES-256-GCM, with jwt.keys.encryption-key and the kid as associated data),
+ * so a copy of the jwt_signing_keys collection alone cannot sign tokens. Keys stored in plain Base64 before
+ * encryption was introduced are still read, until they expire.
+ */
+@Component
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    public record SigningKey(String kid, PrivateKey privateKey) {
+    }
+
+    private record DecodedKey(String kid, ECPublicKey publicKey, PrivateKey privateKey, Instant activatesAt) {
+    }
+
+    private static final String ENCRYPTED_PREFIX = "v1:";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final SecretKey encryptionKey;
+
+    private volatile List<DecodedKey> keys = List.of();               // newest activation first
+    private volatile Map<String, DecodedKey> keysById = Map.of();
+
+    // encryptionKey: 32 random bytes, Base64 (e.g. openssl rand -base64 32), the same on every node
+    public JwtKeyRing(@Value("${jwt.keys.encryption-key}") String encryptionKey) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getDecoder().decode(encryptionKey.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("jwt.keys.encryption-key is not valid Base64", e);
+        }
+        if (bytes.length != 32) {
+            throw new IllegalStateException("jwt.keys.encryption-key must be 32 bytes (Base64), not " + bytes.length);
+        }
+        this.encryptionKey = new SecretKeySpec(bytes, "AES");
+    }
+
+    public synchronized void load(List<JwtSigningKey> stored) {
+        Map<String, DecodedKey> previous = keysById;
+        List<DecodedKey> decoded = new ArrayList<>(stored.size());
+        for (JwtSigningKey key : stored) {
+            DecodedKey known = previous.get(key.getId());
+            decoded.add((known != null) ? known : decode(key));
+        }
+        decoded.sort(Comparator.comparing(DecodedKey::activatesAt).reversed());
+
+        Map<String, DecodedKey> byId = new HashMap<>();
+        decoded.forEach(key -> byId.put(key.kid(), key));
+        keys = List.copyOf(decoded);
+        keysById = Map.copyOf(byId);
+    }
+
+    public SigningKey signingKey() {
+        Instant now = Instant.now();
+        for (DecodedKey key : keys) {
+            if (!key.activatesAt().isAfter(now)) {
+                return new SigningKey(key.kid(), key.privateKey());
+            }
+        }
+        throw new IllegalStateException("No active JWT signing key.");
+    }
+
+    // Called by the JWT parser with the token's header; unknown or missing kids fail verification.
+    @Override
+    protected Key locate(JwsHeader header) {
+        String kid = header.getKeyId();
+        DecodedKey key = (kid != null) ? keysById.get(kid) : null;
+        if (key == null) {
+            throw new JwtException("Unknown signing key.");
+        }
+        return key.publicKey();
+    }
+
+    // Public keys in JWK format (RFC 7517), including keys that are published but not active yet.
+    public List<Map<String, Object>> publicJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        for (DecodedKey key : keys) {
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("use", "sig");
+            jwk.put("alg", "ES256");
+            jwk.put("kid", key.kid());
+            jwk.put("x", coordinate(key.publicKey().getW().getAffineX()));
+            jwk.put("y", coordinate(key.publicKey().getW().getAffineY()));
+            jwks.add(jwk);
+        }
+        return jwks;
+    }
+
+    public JwtSigningKey generateKey(Instant activatesAt, Instant expiresAt) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair pair = generator.generateKeyPair();
+
+            JwtSigningKey key = new JwtSigningKey();
+            key.setId(UUID.randomUUID().toString());
+            key.setPrivateKey(encrypt(key.getId(), pair.getPrivate().getEncoded()));
+            key.setPublicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()));
+            key.setActivatesAt(activatesAt);
+            key.setExpiresAt(expiresAt);
+            return key;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate an ES256 key pair", e);
+        }
+    }
+
+    private DecodedKey decode(JwtSigningKey key) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance("EC");
+            ECPublicKey publicKey = (ECPublicKey) factory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey())));
+            PrivateKey privateKey = factory.generatePrivate(
+                    new PKCS8EncodedKeySpec(decrypt(key.getId(), key.getPrivateKey())));
+            return new DecodedKey(key.getId(), publicKey, privateKey, key.getActivatesAt());
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            // Also a wrong jwt.keys.encryption-key (GCM tag mismatch)
+            throw new IllegalStateException("Invalid JWT signing key " + key.getId(), e);
+        }
+    }
+
+    // "v1:" + Base64(IV + ciphertext and tag); the kid is authenticated, so a value cannot be moved to another key.
+    private String encrypt(String kid, byte[] pkcs8) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_BYTES];
+        RANDOM.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        byte[] encrypted = cipher.doFinal(pkcs8);
+        byte[] stored = ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array();
+        return ENCRYPTED_PREFIX + Base64.getEncoder().encodeToString(stored);
+    }
+
+    private byte[] decrypt(String kid, String stored) throws GeneralSecurityException {
+        if (!stored.startsWith(ENCRYPTED_PREFIX)) {
+            return Base64.getDecoder().decode(stored);  // Stored before encryption was introduced
+        }
+        byte[] bytes = Base64.getDecoder().decode(stored.substring(ENCRYPTED_PREFIX.length()));
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_BITS, bytes, 0, IV_BYTES));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(bytes, IV_BYTES, bytes.length - IV_BYTES);
+    }
+
+    // P-256 coordinates are 32 bytes, unsigned, left-padded, base64url without padding.
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+}
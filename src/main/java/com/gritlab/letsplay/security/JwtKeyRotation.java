@@ -0,0 +1,137 @@
+package com.gritlab.letsplay.security;
+
+import com.gritlab.letsplay.model.JwtSigningKey;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps JwtKeyRing in sync with the jwt_signing_keys collection and rotates the signing key.
+ *
+ * Every jwt.keys.refresh-interval each node reloads the keys. A new key is created when the newest one is about
+ * to reach jwt.keys.rotation-interval; it activates two refresh intervals later, so every node (and every JWKS
+ * consumer) already knows it when the first token signed with it arrives. A key is kept until the last token
+ * it signed has expired, then MongoDB deletes it (TTL index).
+ * If no key is active (first start, or the active key expired during a downtime), one is activated immediately:
+ * login never fails for lack of a signing key.
+ */
+@Component
+public class JwtKeyRotation {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRotation.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final JwtKeyRing keyRing;
+    private final Duration rotationInterval;
+    private final Duration refreshInterval;
+    private final Duration accessTokenTtl;
+    private final Duration publicationLead;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "jwt-key-rotation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JwtKeyRotation(MongoTemplate mongoTemplate,
+                          JwtKeyRing keyRing,
+                          @Value("${jwt.keys.rotation-interval:7d}") Duration rotationInterval,
+                          @Value("${jwt.keys.refresh-interval:1m}") Duration refreshInterval,
+                          @Value("${jwt.access-token.ttl:15m}") Duration accessTokenTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.keyRing = keyRing;
+        this.rotationInterval = rotationInterval;
+        this.refreshInterval = refreshInterval;
+        this.accessTokenTtl = accessTokenTtl;
+        this.publicationLead = refreshInterval.multipliedBy(2);
+    }
+
+    // Loaded before the application serves requests, so login can sign right away.
+    @PostConstruct
+    public void start() {
+        refresh();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                // Keep the schedule alive; the current ring stays in use until the next run.
+                log.atWarn().setCause(e).log("JWT key refresh failed");
+            }
+        }, refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    void refresh() {
+        Instant now = Instant.now();
+        List<JwtSigningKey> keys = loadKeys(now);
+        if (!signsUntil(keys, now, now)) {
+            // First start, or every active key expired while the application was down: a key must sign right away.
+            activateNow(keys, now);
+            keys = loadKeys(now);
+        }
+
+        Instant newestActivation = keys.stream()
+                .map(JwtSigningKey::getActivatesAt)
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+        if (!newestActivation.isAfter(now.minus(rotationInterval).plus(publicationLead))) {
+            // Pre-published only if the current key keeps signing until then (it may expire first after a downtime).
+            Instant activatesAt = now.plus(publicationLead);
+            createKey(signsUntil(keys, now, activatesAt) ? activatesAt : now);
+            keys = loadKeys(now);
+        }
+        keyRing.load(keys);
+    }
+
+    // True if a key active at now is still stored (not expired) at until
+    private static boolean signsUntil(List<JwtSigningKey> keys, Instant now, Instant until) {
+        return keys.stream().anyMatch(key -> !key.getActivatesAt().isAfter(now) && key.getExpiresAt().isAfter(until));
+    }
+
+    // Activates the next published key early (verifiers may not know it yet, but nothing could be signed otherwise),
+    // or creates one if none is published.
+    private void activateNow(List<JwtSigningKey> keys, Instant now) {
+        JwtSigningKey next = keys.stream()
+                .filter(key -> key.getActivatesAt().isAfter(now))
+                .min(Comparator.comparing(JwtSigningKey::getActivatesAt))
+                .orElse(null);
+        if (next == null) {
+            createKey(now);
+            return;
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(next.getId())),
+                Update.update("activatesAt", now), JwtSigningKey.class);
+        log.atWarn().addKeyValue("kid", next.getId()).log("JWT signing key activated early: no other key was active");
+    }
+
+    private List<JwtSigningKey> loadKeys(Instant now) {
+        return mongoTemplate.find(new Query(Criteria.where("expiresAt").gt(now)), JwtSigningKey.class);
+    }
+
+    private void createKey(Instant activatesAt) {
+        // Signs until the next key activates, then verifies until its last token expires.
+        Instant expiresAt = activatesAt.plus(rotationInterval).plus(publicationLead).plus(accessTokenTtl);
+        JwtSigningKey key = keyRing.generateKey(activatesAt, expiresAt);
+        mongoTemplate.insert(key);
+        log.atInfo().addKeyValue("kid", key.getId()).addKeyValue("activatesAt", activatesAt).log("JWT signing key created");
+    }
+}
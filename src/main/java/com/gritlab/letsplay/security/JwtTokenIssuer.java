@@ -0,0 +1,43 @@
+package com.gritlab.letsplay.security;
+
+import com.gritlab.letsplay.model.User;
+import io.jsonwebtoken.Jwts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Mints the short-lived access tokens returned by login and token refresh.
+ * Counterpart of JwtTokenVerifier: ES256 with the current key of the JwtKeyRing (kid header),
+ * claims sub = email, role, userId, plus a unique id (jti) so a single token can be revoked.
+ */
+@Component
+public class JwtTokenIssuer {
+
+    private final JwtKeyRing keyRing;
+    private final Duration accessTokenTtl;
+
+    public JwtTokenIssuer(JwtKeyRing keyRing,
+                          @Value("${jwt.access-token.ttl:15m}") Duration accessTokenTtl) {
+        this.keyRing = keyRing;
+        this.accessTokenTtl = accessTokenTtl;
+    }
+
+    public String issue(User user) {
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim("role", user.getRole())
+                .claim("userId", user.getId())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + accessTokenTtl.toMillis()))
+                .signWith(signingKey.privateKey(), Jwts.SIG.ES256)
+                .compact();
+    }
+}
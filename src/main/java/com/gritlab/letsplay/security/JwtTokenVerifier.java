@@ -0,0 +1,152 @@
+package com.gritlab.letsplay.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies JWTs and caches the verified principal and authorities until the token expires.
+ * Clients reuse one token for its whole lifetime, so only the first request pays for
+ * parsing and ES256 verification; later ones cost a SHA-256 digest and a cache lookup.
+ * Signature keys come from the JwtKeyRing by kid; the parser is built once and shared.
+ * Hit/miss counters are recorded on the cache (see {@link #getCache()}), and each call is timed
+ * (jwt.verify timer, tagged outcome=cached|parsed|invalid).
+ * Cached or not, every call also checks the in-memory revocation list, so a revoked token is rejected
+ * on its next request without a database lookup.
+ */
+@Component
+public class JwtTokenVerifier {
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final TokenRevocations revocations;
+    private final Timer cachedTimer;
+    private final Timer parsedTimer;
+    private final Timer invalidTimer;
+
+    public JwtTokenVerifier(JwtKeyRing keyRing,
+                            @Value("${jwt.verification-cache.max-size:10000}") long maxSize,
+                            TokenRevocations revocations,
+                            MeterRegistry meterRegistry) {
+        this.parser = Jwts.parser().keyLocator(keyRing).build();
+        this.revocations = revocations;
+        this.cachedTimer = timer(meterRegistry, "cached");
+        this.parsedTimer = timer(meterRegistry, "parsed");
+        this.invalidTimer = timer(meterRegistry, "invalid");
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns a fresh authentication for the token.
+     * Throws JwtException (or IllegalArgumentException) if the token is invalid or expired.
+     */
+    public UsernamePasswordAuthenticationToken verify(String token) {
+        long start = System.nanoTime();
+        String key = digest(token);
+        VerifiedToken verified = verifiedTokens.getIfPresent(key);
+        Timer timer = cachedTimer;
+        if (verified == null || verified.expiresAtMillis() <= System.currentTimeMillis()) {
+            try {
+                verified = parse(token);
+            } catch (RuntimeException e) {
+                invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+            verifiedTokens.put(key, verified);
+            timer = parsedTimer;
+        }
+        if (revocations.isRevoked(verified.principal().tokenId())) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw new JwtException("Token has been revoked.");
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        // A new token per request: the cached principal and authorities are immutable, the token is not.
+        return new UsernamePasswordAuthenticationToken(verified.principal(), null, verified.authorities());
+    }
+
+    public Cache<String, VerifiedToken> getCache() {
+        return verifiedTokens;
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        String username = claims.getSubject();
+        String role = claims.get("role", String.class);
+        String userId = claims.get("userId", String.class);
+        String tokenId = claims.getId();
+        Date expiration = claims.getExpiration();
+        if (username == null || userId == null || tokenId == null || expiration == null) {
+            throw new JwtException("Token is missing required claims.");
+        }
+
+        List<GrantedAuthority> authorities = (role != null)
+                ? List.of(new SimpleGrantedAuthority("ROLE_" + role.toLowerCase()))
+                : List.of();
+        AuthenticatedUser principal = new AuthenticatedUser(userId, username, role, tokenId, expiration.getTime());
+        return new VerifiedToken(principal, authorities, expiration.getTime());
+    }
+
+    private static Timer timer(MeterRegistry registry, String outcome) {
+        return Timer.builder("jwt.verify")
+                .description("Time spent authenticating a bearer token")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    // The digest keeps raw tokens out of the heap and gives fixed-size keys.
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record VerifiedToken(AuthenticatedUser principal, List<GrantedAuthority> authorities, long expiresAtMillis) {
+    }
+
+    // Each entry lives exactly as long as its token is valid.
+    private static class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMs = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.gritlab.letsplay.security;
+
+import com.gritlab.letsplay.cache.UserCache;
+import com.gritlab.letsplay.exception.GlobalExceptionHandler.TooManyRequestsException;
+import com.gritlab.letsplay.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing on a small dedicated pool instead of the request threads.
+ * The pool and its queue are bounded: when both are full the request fails fast with 429,
+ * so a login/registration burst cannot tie up every request thread and starve the product API.
+ * Executor metrics are published as executor.* with name=password-hashing.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder passwordEncoder;
+    private final MongoTemplate mongoTemplate;
+    private final UserCache userCache;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MongoTemplate mongoTemplate,
+                          UserCache userCache,
+                          MeterRegistry meterRegistry,
+                          @Value("${password.hashing.threads:0}") int threads,
+                          @Value("${password.hashing.queue-size:50}") int queueSize,
+                          @Value("${password.hashing.max-wait:5s}") Duration maxWait) {
+        this.passwordEncoder = passwordEncoder;
+        this.mongoTemplate = mongoTemplate;
+        this.userCache = userCache;
+        this.maxWait = maxWait;
+
+        // Hashing is CPU bound: more threads than cores only adds queueing inside the OS scheduler.
+        int poolSize = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                r -> {
+                    Thread thread = new Thread(r, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hashing");
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return call(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * After a successful login: if the stored hash uses an older algorithm or cost than the configured one,
+     * re-hash the password in the background. The update only applies if the hash was not changed meanwhile.
+     * Skipped when the pool is saturated; the next login tries again.
+     */
+    public void upgradeIfNeeded(User user, String rawPassword) {
+        String currentHash = user.getPassword();
+        if (!passwordEncoder.upgradeEncoding(currentHash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                String newHash = passwordEncoder.encode(rawPassword);
+                Query query = new Query(Criteria.where("_id").is(user.getId()).and("password").is(currentHash));
+                if (mongoTemplate.updateFirst(query, Update.update("password", newHash), User.class).getModifiedCount() > 0) {
+                    userCache.invalidate(user.getId());
+                    log.atDebug().addKeyValue("userId", user.getId()).log("Password hash upgraded");
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.atDebug().addKeyValue("userId", user.getId()).log("Password hash upgrade skipped, hashing pool saturated");
+        }
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Too many authentication requests. Please retry shortly.", RETRY_AFTER_SECONDS);
+        }
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TooManyRequestsException("Too many authentication requests. Please retry shortly.", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.gritlab.letsplay.security;
+
+/**
+ * Limits how often a key (client IP, email, ...) may perform an action.
+ * The in-memory implementation is per node; a shared implementation (e.g. backed by Redis)
+ * can be swapped in behind this interface when the API runs on several nodes.
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes one permit for the key.
+     * Returns 0 if it was granted, otherwise the number of seconds until a permit is available (at least 1).
+     */
+    long tryAcquire(String key);
+}
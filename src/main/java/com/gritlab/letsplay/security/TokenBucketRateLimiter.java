@@ -0,0 +1,53 @@
+package com.gritlab.letsplay.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory token bucket per key: up to "capacity" attempts in a burst, refilled at "refillPerMinute".
+ * Buckets live in a bounded Caffeine map (striped, no global lock) and are updated with a CAS loop,
+ * so concurrent attempts for the same key never block each other.
+ * An idle bucket is dropped once it would be full again, which is the same as starting a new one.
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final Cache<String, AtomicReference<Bucket>> buckets;
+
+    public TokenBucketRateLimiter(int capacity, int refillPerMinute, long maxKeys) {
+        if (capacity < 1 || refillPerMinute < 1) {
+            throw new IllegalArgumentException("Rate limit capacity and refill rate must be positive.");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos((long) Math.ceil(capacity / tokensPerNano)))
+                .build();
+    }
+
+    @Override
+    public long tryAcquire(String key) {
+        AtomicReference<Bucket> ref = buckets.get(key, k -> new AtomicReference<>(new Bucket(capacity, System.nanoTime())));
+        while (true) {
+            Bucket current = ref.get();
+            long now = System.nanoTime();
+            double tokens = Math.min(capacity, current.tokens() + (now - current.refilledAt()) * tokensPerNano);
+            if (tokens < 1) {
+                double waitNanos = (1 - tokens) / tokensPerNano;
+                return Math.max(1, (long) Math.ceil(waitNanos / TimeUnit.SECONDS.toNanos(1)));
+            }
+            if (ref.compareAndSet(current, new Bucket(tokens - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    private record Bucket(double tokens, long refilledAt) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.gritlab.letsplay.security;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory deny-list of revoked access tokens (by jti), checked on every authenticated request.
+ * Almost every token checked is not revoked, so a Bloom filter answers first: a negative needs a few
+ * bit reads and no allocation; only possible hits go to the map. Entries are dropped once the token
+ * would have expired anyway (see {@link #purgeExpired()}).
+ * Revocations are rare and serialized; lookups never lock. Persistence and sharing between nodes: TokenService.
+ */
+@Component
+public class TokenRevocations {
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();  // jti -> token expiry (epoch ms)
+    private volatile BloomFilter bloom = new BloomFilter(MIN_CAPACITY);
+
+    public boolean isRevoked(String tokenId) {
+        return bloom.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    public synchronized void revoke(String tokenId, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(tokenId, expiresAtMillis);
+        if (revoked.size() > bloom.capacity()) {
+            rebuild();
+        } else {
+            bloom.add(tokenId);
+        }
+    }
+
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+            rebuild();
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // A Bloom filter cannot forget entries, so it is replaced as a whole (sized with headroom).
+    private void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(MIN_CAPACITY, revoked.size() * 2));
+        revoked.keySet().forEach(rebuilt::add);
+        bloom = rebuilt;
+    }
+
+    // ~1% false positives at capacity; bits set with CAS so add() is safe next to concurrent reads.
+    static final class BloomFilter {
+        private static final int HASHES = 7;
+        private static final int BITS_PER_ENTRY = 10;
+
+        private final int capacity;
+        private final long bitCount;
+        private final AtomicLongArray words;
+
+        BloomFilter(int capacity) {
+            this.capacity = capacity;
+            this.bitCount = (long) capacity * BITS_PER_ENTRY;
+            this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        }
+
+        int capacity() {
+            return capacity;
+        }
+
+        void add(String key) {
+            long h1 = key.hashCode();
+            long h2 = mix(h1);
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word;
+                do {
+                    word = words.get(index);
+                } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long h1 = key.hashCode();
+            long h2 = mix(h1);
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Second, independent-enough hash from the first (SplitMix64 finalizer), kept odd so all bits get probed.
+        private static long mix(long h) {
+            h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+            h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+            return (h ^ (h >>> 31)) | 1;
+        }
+    }
+}
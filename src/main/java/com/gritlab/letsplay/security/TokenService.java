@@ -0,0 +1,193 @@
+package com.gritlab.letsplay.security;
+
+import com.gritlab.letsplay.exception.GlobalExceptionHandler.UnauthorizedException;
+import com.gritlab.letsplay.model.RefreshToken;
+import com.gritlab.letsplay.model.RevokedToken;
+import com.gritlab.letsplay.model.User;
+import com.gritlab.letsplay.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access/refresh token lifecycle: login issues a short-lived access token (JwtTokenIssuer) and an opaque refresh token.
+ * Refresh tokens rotate: each one can be exchanged once, for a new pair in the same family.
+ * Presenting an already rotated token means a copy leaked, so the whole family is revoked.
+ *
+ * Logout revokes the access token by jti in TokenRevocations (checked in memory on every request) and in the
+ * revoked_tokens collection, which every node polls so revocations reach all of them within jwt.revocation.sync-interval.
+ */
+@Component
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);  // tolerates clock skew between nodes
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final JwtTokenIssuer jwtTokenIssuer;
+    private final TokenRevocations revocations;
+    private final Duration refreshTokenTtl;
+    private final Duration syncInterval;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "token-revocation-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TokenService(MongoTemplate mongoTemplate,
+                        UserRepository userRepository,
+                        JwtTokenIssuer jwtTokenIssuer,
+                        TokenRevocations revocations,
+                        @Value("${jwt.refresh-token.ttl:7d}") Duration refreshTokenTtl,
+                        @Value("${jwt.revocation.sync-interval:30s}") Duration syncInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+        this.jwtTokenIssuer = jwtTokenIssuer;
+        this.revocations = revocations;
+        this.refreshTokenTtl = refreshTokenTtl;
+        this.syncInterval = syncInterval;
+    }
+
+    public record TokenPair(String accessToken, String refreshToken) {
+    }
+
+    // -------------------------- Issue / refresh ------------------------------------------------- //
+    public TokenPair issue(User user) {
+        return new TokenPair(jwtTokenIssuer.issue(user), createRefreshToken(user.getId(), UUID.randomUUID().toString()));
+    }
+
+    public TokenPair refresh(String rawRefreshToken) {
+        Instant now = Instant.now();
+        String tokenHash = hash(rawRefreshToken);
+
+        // Atomically claims the token: of two concurrent exchanges, only one sees it unrotated.
+        Query unrotated = new Query(Criteria.where("tokenHash").is(tokenHash)
+                .and("rotatedAt").is(null)
+                .and("expiresAt").gt(now));
+        RefreshToken current = mongoTemplate.findAndModify(unrotated, Update.update("rotatedAt", now), RefreshToken.class);
+        if (current == null) {
+            RefreshToken reused = mongoTemplate.findOne(
+                    new Query(Criteria.where("tokenHash").is(tokenHash)), RefreshToken.class);
+            if (reused != null && reused.getRotatedAt() != null) {
+                revokeFamily(reused.getFamilyId());
+                log.atWarn().addKeyValue("userId", reused.getUserId()).log("Rotated refresh token reused, session revoked");
+            }
+            throw new UnauthorizedException("Invalid or expired refresh token.");
+        }
+
+        // Loaded fresh, so a role change or deletion applies from the next refresh on.
+        User user = userRepository.findById(current.getUserId())
+                .orElseThrow(() -> new UnauthorizedException("Invalid or expired refresh token."));
+        return new TokenPair(jwtTokenIssuer.issue(user), createRefreshToken(user.getId(), current.getFamilyId()));
+    }
+
+    // -------------------------- Revocation ------------------------------------------------- //
+    // Revokes the caller's access token and, if given, the session (refresh token family) it belongs to.
+    public void logout(AuthenticatedUser user, String rawRefreshToken) {
+        revokeAccessToken(user.tokenId(), user.tokenExpiresAt());
+        if (rawRefreshToken != null && !rawRefreshToken.isBlank()) {
+            RefreshToken token = mongoTemplate.findOne(new Query(Criteria.where("tokenHash").is(hash(rawRefreshToken))
+                    .and("userId").is(user.id())), RefreshToken.class);
+            if (token != null) {
+                revokeFamily(token.getFamilyId());
+            }
+        }
+    }
+
+    // Ends every session of the user (password change, account deletion); current access tokens expire on their own.
+    public void revokeAllForUser(String userId) {
+        mongoTemplate.remove(new Query(Criteria.where("userId").is(userId)), RefreshToken.class);
+    }
+
+    private void revokeAccessToken(String tokenId, long expiresAtMillis) {
+        revocations.revoke(tokenId, expiresAtMillis);
+
+        RevokedToken revoked = new RevokedToken();
+        revoked.setId(tokenId);
+        revoked.setRevokedAt(Instant.now());
+        revoked.setExpiresAt(Instant.ofEpochMilli(expiresAtMillis));
+        mongoTemplate.save(revoked);
+    }
+
+    private void revokeFamily(String familyId) {
+        mongoTemplate.remove(new Query(Criteria.where("familyId").is(familyId)), RefreshToken.class);
+    }
+
+    private String createRefreshToken(String userId, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Instant now = Instant.now();
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setUserId(userId);
+        token.setFamilyId(familyId);
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plus(refreshTokenTtl));
+        mongoTemplate.insert(token);
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().withoutPadding()
+                    .encodeToString(sha256.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // -------------------------- Revocation sync ------------------------------------------------- //
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::syncRevocations, 0, syncInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    // Pulls revocations made on other nodes (and, on the first run, all still-relevant ones) into memory.
+    private void syncRevocations() {
+        try {
+            Instant now = Instant.now();
+            Query query = new Query(Criteria.where("revokedAt").gte(lastSync.minus(SYNC_OVERLAP))
+                    .and("expiresAt").gt(now));
+            for (RevokedToken revoked : mongoTemplate.find(query, RevokedToken.class)) {
+                revocations.revoke(revoked.getId(), revoked.getExpiresAt().toEpochMilli());
+            }
+            lastSync = now;
+            revocations.purgeExpired();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next run retries from the same point.
+            log.atWarn().setCause(e).log("Token revocation sync failed");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.gritlab.letsplay.codec;
+
+import com.gritlab.letsplay.model.Product;
+import com.gritlab.letsplay.model.ProductDTO;
+import com.gritlab.letsplay.model.User;
+import com.gritlab.letsplay.model.UserDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Byte-level checks against src/main/proto/letsplay.proto: tag = (field << 3) | wire type.
+class ProtobufEncoderTest {
+
+    @Test
+    void productFieldsInOrder() {
+        Product product = new Product();
+        product.setId("p1");
+        product.setName("Mug");
+        product.setDescription("Big");
+        product.setPrice(7.99);
+        product.setUserId("u1");
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.writeBytes(new byte[] { 0x0A, 2, 'p', '1' });            // 1: id
+        expected.writeBytes(new byte[] { 0x12, 3, 'M', 'u', 'g' });       // 2: name
+        expected.writeBytes(new byte[] { 0x1A, 3, 'B', 'i', 'g' });       // 3: description
+        expected.write(0x21);                                              // 4: price, fixed64
+        expected.writeBytes(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putDouble(7.99).array());
+        expected.writeBytes(new byte[] { 0x2A, 2, 'u', '1' });            // 5: user_id
+
+        assertThat(ProtobufEncoder.product(ProductDTO.from(product))).isEqualTo(expected.toByteArray());
+    }
+
+    @Test
+    void nullFieldsAreLeftOut() {
+        Product product = new Product();
+        product.setId("p1");
+
+        assertThat(ProtobufEncoder.product(ProductDTO.from(product))).containsExactly(0x0A, 2, 'p', '1');
+    }
+
+    @Test
+    void ownerIsANestedMessage() {
+        Product product = new Product();
+        product.setId("p1");
+        User owner = new User();
+        owner.setId("u1");
+        owner.setName("Ann");
+
+        byte[] encoded = ProtobufEncoder.product(ProductDTO.from(product, owner));
+
+        byte[] ownerMessage = { 0x0A, 2, 'u', '1', 0x12, 3, 'A', 'n', 'n' };
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.writeBytes(new byte[] { 0x0A, 2, 'p', '1' });
+        expected.writeBytes(new byte[] { 0x32, (byte) ownerMessage.length });  // 6: owner
+        expected.writeBytes(ownerMessage);
+        assertThat(encoded).isEqualTo(expected.toByteArray());
+    }
+
+    @Test
+    void longStringsGetAMultiByteLength() {
+        Product product = new Product();
+        product.setDescription("x".repeat(300));
+
+        byte[] encoded = ProtobufEncoder.product(ProductDTO.from(product));
+
+        // 300 = 0b10_0101100 -> varint 0xAC 0x02
+        assertThat(encoded).startsWith(0x1A, 0xAC, 0x02);
+        assertThat(encoded).hasSize(3 + 300);
+    }
+
+    @Test
+    void userFields() {
+        User user = new User();
+        user.setId("u1");
+        user.setName("Ann");
+        user.setEmail("a@b.c");
+        user.setRole("user");
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.writeBytes(new byte[] { 0x0A, 2, 'u', '1' });
+        expected.writeBytes(new byte[] { 0x12, 3, 'A', 'n', 'n' });
+        expected.writeBytes(new byte[] { 0x1A, 5 });
+        expected.writeBytes("a@b.c".getBytes(StandardCharsets.UTF_8));
+        expected.writeBytes(new byte[] { 0x22, 4, 'u', 's', 'e', 'r' });
+
+        assertThat(ProtobufEncoder.user(UserDTO.from(user))).isEqualTo(expected.toByteArray());
+    }
+
+    @Test
+    void listItemsAreRepeatedField1() throws Exception {
+        byte[] first = { 0x0A, 2, 'p', '1' };
+        byte[] second = { 0x0A, 2, 'p', '2' };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ProtobufEncoder.writeListItem(out, first);
+        ProtobufEncoder.writeListItem(out, second);
+
+        assertThat(out.toByteArray()).containsExactly(
+                0x0A, 4, 0x0A, 2, 'p', '1',
+                0x0A, 4, 0x0A, 2, 'p', '2');
+    }
+}
@@ -0,0 +1,59 @@
+package com.gritlab.letsplay.controller;
+
+import com.gritlab.letsplay.exception.GlobalExceptionHandler.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ETagsTest {
+
+    private static final String ID = "65f1c0ffee00000000000001";
+
+    @Test
+    void ofUsesVersionZeroForDocumentsWithoutVersion() {
+        assertThat(ETags.of(ID, 3L)).isEqualTo(ID + "-3");
+        assertThat(ETags.of(ID, null)).isEqualTo(ID + "-0");
+    }
+
+    @Test
+    void encodingsOfTheSameVersionHaveTheirOwnTag() {
+        assertThat(ETags.of(ID, 3L, MediaType.APPLICATION_JSON)).isEqualTo(ID + "-3-json");
+        assertThat(ETags.of(ID, 3L, MediaType.APPLICATION_CBOR)).isEqualTo(ID + "-3-cbor");
+    }
+
+    @Test
+    void tagOfAnyEncodingNamesItsVersion() {
+        assertThat(ETags.versionsOf("\"" + ID + "-3-json\"", ID)).containsExactly(3L);
+        assertThat(ETags.versionsOf("\"" + ID + "-3-x-jackson-smile\", \"" + ID + "-4\"", ID)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void noIfMatchOrWildcardAllowsAnyVersion() {
+        assertThat(ETags.versionsOf(null, ID)).isNull();
+        assertThat(ETags.versionsOf("  ", ID)).isNull();
+        assertThat(ETags.versionsOf("*", ID)).isNull();
+        assertThat(ETags.versionsOf("\"" + ID + "-1\", *", ID)).isNull();
+    }
+
+    @Test
+    void readsQuotedAndUnquotedTagsOfTheDocument() {
+        assertThat(ETags.versionsOf("\"" + ID + "-4\"", ID)).containsExactly(4L);
+        assertThat(ETags.versionsOf(ID + "-4", ID)).containsExactly(4L);
+        assertThat(ETags.versionsOf("\"" + ID + "-4\" , \"" + ID + "-5\"", ID)).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void skipsWeakForeignAndMalformedTags() {
+        String ifMatch = "W/\"" + ID + "-1\", \"other-2\", \"" + ID + "-x\", \"" + ID + "-7\"";
+        assertThat(ETags.versionsOf(ifMatch, ID)).containsExactly(7L);
+    }
+
+    @Test
+    void failsWhenNoTagCanMatch() {
+        assertThatThrownBy(() -> ETags.versionsOf("\"other-2\"", ID)).isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> ETags.versionsOf("W/\"" + ID + "-1\"", ID)).isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> ETags.versionsOf("\"" + ID + "-\"", ID)).isInstanceOf(PreconditionFailedException.class);
+    }
+}
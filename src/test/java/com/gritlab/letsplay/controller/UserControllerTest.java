@@ -0,0 +1,98 @@
+package com.gritlab.letsplay.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.gritlab.letsplay.cache.UserCache;
+import com.gritlab.letsplay.cleanup.ProductCleanup;
+import com.gritlab.letsplay.codec.BinaryObjectMappers;
+import com.gritlab.letsplay.codec.ProtobufDtoHttpMessageConverter;
+import com.gritlab.letsplay.codec.ProtobufEncoder;
+import com.gritlab.letsplay.model.User;
+import com.gritlab.letsplay.repository.UserRepository;
+import com.gritlab.letsplay.security.PasswordHasher;
+import com.gritlab.letsplay.security.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Conditional GETs of a user: every negotiated encoding is its own representation, with its own ETag.
+class UserControllerTest {
+
+    private static final String ID = "65f1c0ffee00000000000001";
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(ID);
+        user.setName("Ann");
+        user.setEmail("ann@example.com");
+        user.setRole("user");
+        user.setVersion(3L);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(ID)).thenReturn(Optional.of(user));
+
+        UserController controller = new UserController(userRepository, mock(PasswordHasher.class),
+                mock(UserCache.class), mock(TokenService.class), mock(ProductCleanup.class));
+        mvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(),
+                        new MappingJackson2SmileHttpMessageConverter(new ObjectMapper(new SmileFactory())),
+                        new ProtobufDtoHttpMessageConverter())
+                .build();
+    }
+
+    @Test
+    void etagOfOneEncodingDoesNotRevalidateAnother() throws Exception {
+        String jsonETag = mvc.perform(get("/users/{id}", ID).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String smileETag = mvc.perform(get("/users/{id}", ID).accept(BinaryObjectMappers.SMILE)
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryObjectMappers.SMILE))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(smileETag).isNotNull().isNotEqualTo(jsonETag);
+    }
+
+    @Test
+    void etagOfTheSameEncodingRevalidates() throws Exception {
+        String etag = mvc.perform(get("/users/{id}", ID).accept(ProtobufEncoder.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProtobufEncoder.PROTOBUF))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/users/{id}", ID).accept(ProtobufEncoder.PROTOBUF).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        mvc.perform(get("/users/{id}", ID).accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void noAcceptGetsJson() throws Exception {
+        mvc.perform(get("/users/{id}", ID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + ID + "-3-json\""));
+    }
+}
@@ -0,0 +1,281 @@
+package com.gritlab.letsplay.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gritlab.letsplay.event.ProductChangedEvent;
+import com.gritlab.letsplay.model.Product;
+import com.gritlab.letsplay.model.User;
+import com.gritlab.letsplay.search.ProductSearchIndex;
+import com.gritlab.letsplay.security.TokenService;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of the servlet API against mongo-java-server, an in-memory MongoDB stand-in, so no database is needed.
+ * Seeds users and products (SampleCatalog), then runs each mix for the configured duration and prints
+ * throughput and latency percentiles per endpoint. Excluded from the regular build (tag "loadtest"):
+ *   mvn -Ploadtest test [-Dloadtest.users=200] [-Dloadtest.products=10000] [-Dloadtest.concurrency=64] [-Dloadtest.duration=20]
+ *       [-Dloadtest.max-error-rate=0]
+ * A mix fails if any operation's share of failed calls (4xx, 5xx, I/O errors) exceeds loadtest.max-error-rate.
+ *
+ * The in-memory backend only indexes _id, so the numbers are not those of a real MongoDB:
+ * compare runs of the same mix on the same machine (before/after a change).
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // The in-memory backend does not need (or fully support) the secondary and TTL indexes
+        "spring.data.mongodb.auto-index-creation=false",
+        "admin.bootstrap.enabled=false",
+        // Every request comes from the same IP: throttling would turn the auth mix into a 429 test
+        "login.rate-limit.ip.capacity=1000000",
+        "login.rate-limit.ip.refill-per-minute=1000000",
+        "login.rate-limit.email.capacity=1000000",
+        "login.rate-limit.email.refill-per-minute=1000000",
+        // Logins wait for a hashing thread instead of getting 429, so the auth mix measures hashing latency
+        "password.hashing.queue-size=10000",
+        "jwt.access-token.ttl=2h"
+})
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+class ApiLoadTest {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 200);
+    private static final int PRODUCTS = Integer.getInteger("loadtest.products", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 64);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration", 20));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0"));
+
+    // Left running until the JVM exits: the Spring context, closed after this class, uses it until then.
+    private static final MongoServer MONGO = new MongoServer(new MemoryBackend());
+    private static final InetSocketAddress MONGO_ADDRESS = MONGO.bind();
+
+    @DynamicPropertySource
+    static void mongoUri(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri",
+                () -> "mongodb://" + MONGO_ADDRESS.getHostString() + ":" + MONGO_ADDRESS.getPort() + "/loadtest");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ExecutorService httpExecutor;
+    private HttpClient client;
+    private String baseUrl;
+    private List<User> users;
+    private String[] accessTokens;      // by user index
+    private String[] productIds;
+    private int[] productOwners;        // user index of each product
+
+    // Products created by the write mix, deleted again by its DELETE operation
+    private final Queue<Created> created = new ConcurrentLinkedQueue<>();
+
+    private record Created(String id, String authorization) {
+    }
+
+    // -------------------------- Seeding ------------------------------------------------- //
+    @BeforeAll
+    void seed() throws Exception {
+        httpExecutor = Executors.newFixedThreadPool(Math.max(4, CONCURRENCY / 8));
+        client = LoadDriver.insecureClient(httpExecutor);
+        baseUrl = "https://localhost:" + port;
+
+        // One hash for everyone: seeding 10k users should not take 10k bcrypt rounds.
+        users = new ArrayList<>(mongoTemplate.insert(
+                SampleCatalog.users(USERS, passwordEncoder.encode(SampleCatalog.PASSWORD)), User.class));
+        accessTokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            accessTokens[i] = tokenService.issue(users.get(i)).accessToken();
+        }
+
+        List<Product> products = new ArrayList<>(mongoTemplate.insert(SampleCatalog.products(PRODUCTS, users, 42L), Product.class));
+        productIds = new String[PRODUCTS];
+        productOwners = new int[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            productIds[i] = products.get(i).getId();
+            productOwners[i] = i % USERS;
+            // Same path as products created through the API: search index, caches and change feed pick them up.
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, productIds[i]));
+        }
+
+        long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+        while (searchIndex.size() < PRODUCTS && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(searchIndex.size()).as("indexed products").isEqualTo(PRODUCTS);
+    }
+
+    @AfterAll
+    void closeClient() {
+        httpExecutor.shutdownNow();
+    }
+
+    // -------------------------- Mixes ------------------------------------------------- //
+    // Anonymous catalog reads, plus the caller's own products
+    @Test
+    void readHeavy() throws Exception {
+        run("read-heavy", List.of(
+                new LoadDriver.Operation("GET /products/{id}", 40,
+                        () -> request("/products/" + productIds[randomProduct()]).GET().build()),
+                new LoadDriver.Operation("GET /products/page", 25,
+                        () -> request("/products/page?size=50&after=" + productIds[randomProduct()]).GET().build()),
+                new LoadDriver.Operation("GET /products/search", 20,
+                        () -> request("/products/search?q=" + searchTerm()).GET().build()),
+                new LoadDriver.Operation("GET /products/me", 15,
+                        () -> authorized("/products/me", randomUser()).GET().build())));
+    }
+
+    // Password checks on login, and token verification on every authenticated call
+    @Test
+    void authHeavy() throws Exception {
+        run("auth-heavy", List.of(
+                new LoadDriver.Operation("POST /users/login", 20,
+                        () -> request("/users/login")
+                                .header("Content-Type", "application/json")
+                                .POST(json(Map.of("email", users.get(randomUser()).getEmail(),
+                                        "password", SampleCatalog.PASSWORD)))
+                                .build()),
+                new LoadDriver.Operation("GET /users/me", 60,
+                        () -> authorized("/users/me", randomUser()).GET().build()),
+                new LoadDriver.Operation("GET /products/me", 20,
+                        () -> authorized("/products/me", randomUser()).GET().build())));
+    }
+
+    // Owners creating, updating and deleting their products
+    @Test
+    void writeHeavy() throws Exception {
+        run("write-heavy", List.of(
+                new LoadDriver.Operation("POST /products", 30,
+                        () -> authorized("/products", randomUser())
+                                .header("Content-Type", "application/json")
+                                .POST(json(newProduct()))
+                                .build(),
+                        (request, body) -> created.add(new Created(idOf(body),
+                                request.headers().firstValue("Authorization").orElseThrow()))),
+                new LoadDriver.Operation("PUT /products/{id}", 50, () -> {
+                    int product = randomProduct();
+                    return authorized("/products/" + productIds[product], productOwners[product])
+                            .header("Content-Type", "application/json")
+                            .PUT(json(Map.of("price", SampleCatalog.price(ThreadLocalRandom.current()))))
+                            .build();
+                }),
+                new LoadDriver.Operation("DELETE /products/{id}", 20, () -> {
+                    Created product = created.poll();
+                    if (product == null) {
+                        return null;
+                    }
+                    return request("/products/" + product.id())
+                            .header("Authorization", product.authorization())
+                            .DELETE()
+                            .build();
+                })));
+    }
+
+    // -------------------------- Helper function ------------------------------------------------- //
+    private void run(String mix, List<LoadDriver.Operation> operations) throws Exception {
+        Map<String, LoadDriver.Result> results = LoadDriver.runMix(client, operations, CONCURRENCY, DURATION);
+
+        System.out.printf("%n=== %s: users=%d products=%d concurrency=%d duration=%ds ===%n",
+                mix, USERS, PRODUCTS, CONCURRENCY, DURATION.toSeconds());
+        results.forEach((operation, result) -> System.out.printf("%-24s %s%n", operation, result));
+
+        results.forEach((operation, result) -> {
+            assertThat(result.requests()).as(operation + " requests").isPositive();
+            assertThat(result.errors() / (double) result.requests()).as(operation + " error rate")
+                    .isLessThanOrEqualTo(MAX_ERROR_RATE);
+        });
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest.Builder authorized(String path, int user) {
+        return request(path).header("Authorization", "Bearer " + accessTokens[user]);
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String idOf(String productJson) {
+        try {
+            return objectMapper.readTree(productJson).get("id").asText();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Object> newProduct() {
+        Product product = SampleCatalog.product(ThreadLocalRandom.current(), null);
+        return Map.of("name", product.getName(), "description", product.getDescription(), "price", product.getPrice());
+    }
+
+    // Last word of a catalog item, e.g. "mug" or "scale"
+    private static String searchTerm() {
+        String item = SampleCatalog.ITEMS[ThreadLocalRandom.current().nextInt(SampleCatalog.ITEMS.length)];
+        return item.substring(item.lastIndexOf(' ') + 1).toLowerCase();
+    }
+
+    private static int randomUser() {
+        return ThreadLocalRandom.current().nextInt(USERS);
+    }
+
+    private static int randomProduct() {
+        return ThreadLocalRandom.current().nextInt(PRODUCTS);
+    }
+}
@@ -0,0 +1,230 @@
+package com.gritlab.letsplay.loadtest;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Minimal closed-loop load generator: each worker sends a request, waits for the response,
+ * and sends the next one until the duration is over. Prints throughput and latency percentiles.
+ *
+ * Used to compare the default thread-per-request setup with the virtual-threads profile
+ * (see ProjectDocumentation/PERFORMANCE.md):
+ *   LoadDriver <url> [concurrency=400] [durationSeconds=30] [bearerToken]
+ *
+ * runMix() sends a weighted mix of requests instead and reports each kind separately (used by ApiLoadTest).
+ */
+public class LoadDriver {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadDriver <url> [concurrency] [durationSeconds] [bearerToken]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        String token = args.length > 3 ? args[3] : null;
+
+        HttpClient client = insecureClient(concurrency);
+        Supplier<HttpRequest> request = () -> {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri).GET();
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        };
+
+        Result result = run(client, request, concurrency, duration);
+        System.out.println(uri + " concurrency=" + concurrency + " -> " + result);
+    }
+
+    public static Result run(HttpClient client, Supplier<HttpRequest> request, int concurrency, Duration duration)
+            throws Exception {
+        return runMix(client, List.of(new Operation("all", 1, request)), concurrency, duration).get("all");
+    }
+
+    /**
+     * Each worker picks the next operation at random, in proportion to the weights.
+     * Returns one Result per operation name, in the order of the mix.
+     */
+    public static Map<String, Result> runMix(HttpClient client, List<Operation> mix, int concurrency, Duration duration)
+            throws Exception {
+        int[] cumulativeWeights = new int[mix.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < mix.size(); i++) {
+            totalWeight += mix.get(i).weight();
+            cumulativeWeights[i] = totalWeight;
+        }
+        int weights = totalWeight;
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Recorder[]>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(workers.submit(() -> {
+                    Recorder[] recorders = newRecorders(mix.size());
+                    while (System.nanoTime() < deadline) {
+                        int pick = ThreadLocalRandom.current().nextInt(weights);
+                        int index = 0;
+                        while (cumulativeWeights[index] <= pick) {
+                            index++;
+                        }
+                        Operation operation = mix.get(index);
+                        HttpRequest request = operation.request().get();
+                        if (request == null) {
+                            continue;  // nothing to do for this operation right now (e.g. nothing left to delete)
+                        }
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            if (operation.onSuccess() == null) {
+                                ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                            } else {
+                                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                                ok = response.statusCode() < 400;
+                                if (ok) {
+                                    operation.onSuccess().accept(request, response.body());
+                                }
+                            }
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        recorders[index].record(System.nanoTime() - start, ok);
+                    }
+                    return recorders;
+                }));
+            }
+
+            Recorder[] total = newRecorders(mix.size());
+            for (Future<Recorder[]> future : futures) {
+                Recorder[] recorders = future.get();
+                for (int i = 0; i < recorders.length; i++) {
+                    total[i].merge(recorders[i]);
+                }
+            }
+            Map<String, Result> results = new LinkedHashMap<>();
+            for (int i = 0; i < mix.size(); i++) {
+                results.put(mix.get(i).name(), total[i].toResult(duration));
+            }
+            return results;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static Recorder[] newRecorders(int count) {
+        Recorder[] recorders = new Recorder[count];
+        for (int i = 0; i < count; i++) {
+            recorders[i] = new Recorder();
+        }
+        return recorders;
+    }
+
+    /**
+     * One kind of request in a mix, reported under "name". The supplier may return null to skip a turn.
+     * onSuccess, when set, receives the request and the response body of each successful call.
+     */
+    public record Operation(String name, int weight, Supplier<HttpRequest> request,
+                            BiConsumer<HttpRequest, String> onSuccess) {
+        public Operation(String name, int weight, Supplier<HttpRequest> request) {
+            this(name, weight, request, null);
+        }
+    }
+
+    // The app ships a self-signed certificate; this client is for local load tests only.
+    public static HttpClient insecureClient(int concurrency) throws Exception {
+        // Daemon threads: the pool lives as long as the client and never keeps the JVM alive.
+        return insecureClient(Executors.newFixedThreadPool(Math.max(4, concurrency / 8), runnable -> {
+            Thread thread = new Thread(runnable, "load-driver-http");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    // Same, on an executor owned (and shut down) by the caller.
+    public static HttpClient insecureClient(Executor executor) throws Exception {
+        System.setProperty("jdk.internal.httpclient.disableHostnameVerification", "true");
+        TrustManager[] trustAll = { new X509TrustManager() {
+            @Override public void checkClientTrusted(X509Certificate[] chain, String authType) { }
+            @Override public void checkServerTrusted(X509Certificate[] chain, String authType) { }
+            @Override public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[0]; }
+        } };
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, trustAll, new SecureRandom());
+        return HttpClient.newBuilder()
+                .sslContext(sslContext)
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /** Latencies recorded by one worker (not thread-safe, merged at the end). */
+    static class Recorder {
+        private long[] latenciesNanos = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long latencyNanos, boolean ok) {
+            if (count == latenciesNanos.length) {
+                latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+            }
+            latenciesNanos[count++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void merge(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latenciesNanos[i], true);
+            }
+            errors += other.errors;
+        }
+
+        Result toResult(Duration duration) {
+            long[] sorted = Arrays.copyOf(latenciesNanos, count);
+            Arrays.sort(sorted);
+            return new Result(count, errors, count * 1_000_000_000.0 / duration.toNanos(),
+                    percentileMillis(sorted, 50), percentileMillis(sorted, 95),
+                    percentileMillis(sorted, 99), percentileMillis(sorted, 100));
+        }
+
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+
+    public record Result(long requests, long errors, double throughput,
+                         double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+        @Override
+        public String toString() {
+            return String.format("requests=%d errors=%d throughput=%.1f req/s p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms",
+                    requests, errors, throughput, p50Ms, p95Ms, p99Ms, maxMs);
+        }
+    }
+}
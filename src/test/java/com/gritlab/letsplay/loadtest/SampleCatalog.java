@@ -0,0 +1,83 @@
+package com.gritlab.letsplay.loadtest;
+
+import com.gritlab.letsplay.model.Product;
+import com.gritlab.letsplay.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Users and products in the style of ProjectDocumentation/SampleProducts.txt ("Coffee Mug XL",
+ * "A larger stylish mug", 7.99), generated at any scale. Same seed, same catalog.
+ */
+final class SampleCatalog {
+
+    // Password of every generated user
+    static final String PASSWORD = "loadtest-password";
+
+    static final String[] ITEMS = {
+            "Coffee Mug", "Food Scale", "Milk Frother", "Vegetable Slicer", "Garlic Press", "Citrus Juicer",
+            "Cutting Board", "Chef Knife", "Water Bottle", "Desk Lamp", "Phone Stand", "Yoga Mat",
+            "Backpack", "Travel Pillow", "Bluetooth Speaker", "Wireless Mouse", "Notebook", "Tea Kettle",
+            "Plant Pot", "Wall Clock", "Board Game", "Puzzle Box", "Tennis Racket", "Running Shoes"
+    };
+
+    private static final String[] ADJECTIVES = {
+            "Stainless Steel", "Digital", "Electric", "Handheld", "Compact", "Foldable", "Bamboo",
+            "Ceramic", "Vintage", "Portable", "Deluxe", "Eco"
+    };
+
+    private static final String[] SUFFIXES = { "", " XL", " Mini", " Pro", " Set", " Duo" };
+
+    private static final String[] PURPOSES = {
+            "for everyday use", "for small kitchens", "for travel and camping", "for the home office",
+            "that saves time", "built to last", "for gifts and parties", "with a lifetime warranty"
+    };
+
+    private SampleCatalog() {
+    }
+
+    // Regular users "Load Tester N" (loadtest-N@example.com); the ids are set when they are inserted.
+    static List<User> users(int count, String passwordHash) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setName("Load Tester " + i);
+            user.setEmail("loadtest-" + i + "@example.com");
+            user.setPassword(passwordHash);
+            user.setRole("user");
+            users.add(user);
+        }
+        return users;
+    }
+
+    // Product i belongs to owners[i % owners.size()].
+    static List<Product> products(int count, List<User> owners, long seed) {
+        Random random = new Random(seed);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(product(random, owners.get(i % owners.size()).getId()));
+        }
+        return products;
+    }
+
+    static Product product(Random random, String ownerId) {
+        String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+        String item = ITEMS[random.nextInt(ITEMS.length)];
+
+        Product product = new Product();
+        product.setName(adjective + " " + item + SUFFIXES[random.nextInt(SUFFIXES.length)]);
+        product.setDescription("A " + adjective.toLowerCase() + " " + item.toLowerCase() + " "
+                + PURPOSES[random.nextInt(PURPOSES.length)]);
+        product.setPrice(price(random));
+        product.setUserId(ownerId);
+        return product;
+    }
+
+    // 0.99 to 199.99, most of them under 30 like the sample file
+    static double price(Random random) {
+        double euros = (random.nextInt(4) == 0) ? random.nextInt(200) : random.nextInt(30);
+        return euros + (random.nextBoolean() ? 0.99 : 0.50);
+    }
+}
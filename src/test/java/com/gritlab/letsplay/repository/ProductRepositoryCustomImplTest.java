@@ -0,0 +1,131 @@
+package com.gritlab.letsplay.repository;
+
+import com.gritlab.letsplay.model.Product;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ownership-filtered writes: the owner check is part of the MongoDB filter (no read-then-write), so a write
+ * by anyone but the owner (or an admin, ownerId = null) matches nothing and leaves the product unchanged.
+ * Runs against mongo-java-server (in-memory MongoDB stand-in).
+ */
+class ProductRepositoryCustomImplTest {
+
+    private static final String OWNER = "owner-id";
+    private static final String OTHER = "other-id";
+
+    private static MongoServer server;
+    private static MongoClient client;
+
+    private MongoTemplate mongoTemplate;
+    private ProductRepositoryCustom products;
+    private Product product;
+
+    @BeforeAll
+    static void startMongo() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = new MongoTemplate(client, "products");
+        mongoTemplate.getDb().drop();
+        products = new ProductRepositoryCustomImpl(mongoTemplate);
+
+        Product stored = new Product();
+        stored.setName("Coffee Mug");
+        stored.setDescription("A stylish mug");
+        stored.setPrice(7.99);
+        stored.setUserId(OWNER);
+        product = mongoTemplate.insert(stored);
+    }
+
+    // -------------------------- updateFields ------------------------------------------------- //
+    @Test
+    void ownerUpdatesAndBumpsTheVersion() {
+        Optional<Product> updated = products.updateFields(product.getId(), OWNER, null, new Update().set("price", 9.5));
+
+        assertThat(updated).get().satisfies(saved -> {
+            assertThat(saved.getPrice()).isEqualTo(9.5);
+            assertThat(saved.getVersion()).isEqualTo(product.getVersion() + 1);
+        });
+    }
+
+    @Test
+    void otherUserMatchesNothing() {
+        Optional<Product> updated = products.updateFields(product.getId(), OTHER, null, new Update().set("price", 0.5));
+
+        assertThat(updated).isEmpty();
+        assertThat(reload().getPrice()).isEqualTo(7.99);
+        assertThat(reload().getVersion()).isEqualTo(product.getVersion());
+    }
+
+    @Test
+    void anyOwnerMatchesForAdmins() {
+        Optional<Product> updated = products.updateFields(product.getId(), null, null, new Update().set("userId", OTHER));
+
+        assertThat(updated).get().extracting(Product::getUserId).isEqualTo(OTHER);
+    }
+
+    @Test
+    void outdatedExpectedVersionMatchesNothing() {
+        long current = product.getVersion();
+
+        assertThat(products.updateFields(product.getId(), OWNER, List.of(current + 1), new Update().set("price", 1.0)))
+                .isEmpty();
+        assertThat(products.updateFields(product.getId(), OWNER, List.of(current), new Update().set("price", 1.0)))
+                .isPresent();
+        // The first write moved the version on: the same If-Match cannot win twice
+        assertThat(products.updateFields(product.getId(), OWNER, List.of(current), new Update().set("price", 2.0)))
+                .isEmpty();
+        assertThat(reload().getPrice()).isEqualTo(1.0);
+    }
+
+    // -------------------------- deleteOwned ------------------------------------------------- //
+    @Test
+    void otherUserCannotDelete() {
+        assertThat(products.deleteOwned(product.getId(), OTHER)).isEmpty();
+        assertThat(reload()).isNotNull();
+    }
+
+    @Test
+    void ownerAndAdminDelete() {
+        assertThat(products.deleteOwned(product.getId(), OWNER)).get().extracting(Product::getId).isEqualTo(product.getId());
+        assertThat(reload()).isNull();
+
+        Product another = new Product();
+        another.setName("Tea Kettle");
+        another.setDescription("An electric kettle");
+        another.setPrice(19.99);
+        another.setUserId(OWNER);
+        String anotherId = mongoTemplate.insert(another).getId();
+        assertThat(products.deleteOwned(anotherId, null)).isPresent();
+        assertThat(mongoTemplate.findById(anotherId, Product.class)).isNull();
+    }
+
+    private Product reload() {
+        return mongoTemplate.findById(product.getId(), Product.class);
+    }
+}
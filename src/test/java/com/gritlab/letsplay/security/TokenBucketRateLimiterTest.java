@@ -0,0 +1,46 @@
+package com.gritlab.letsplay.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void grantsTheBurstThenReportsTheWait() {
+        RateLimiter limiter = new TokenBucketRateLimiter(3, 6, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("1.2.3.4")).as("attempt " + i).isZero();
+        }
+        // 6 per minute: the next token is about 10 seconds away
+        assertThat(limiter.tryAcquire("1.2.3.4")).isBetween(9L, 10L);
+    }
+
+    @Test
+    void keysHaveTheirOwnBuckets() {
+        RateLimiter limiter = new TokenBucketRateLimiter(1, 1, 100);
+
+        assertThat(limiter.tryAcquire("alice@example.com")).isZero();
+        assertThat(limiter.tryAcquire("alice@example.com")).isPositive();
+        assertThat(limiter.tryAcquire("bob@example.com")).isZero();
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        // 600 per minute: one token every 100 ms
+        RateLimiter limiter = new TokenBucketRateLimiter(1, 600, 100);
+
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isEqualTo(1);  // rounded up to a whole second
+        Thread.sleep(150);
+        assertThat(limiter.tryAcquire("key")).isZero();
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThatThrownBy(() -> new TokenBucketRateLimiter(0, 5, 100)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketRateLimiter(5, 0, 100)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.gritlab.letsplay.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationsTest {
+
+    private static long inOneHour() {
+        return System.currentTimeMillis() + 3_600_000;
+    }
+
+    @Test
+    void revokedTokensAreReported() {
+        TokenRevocations revocations = new TokenRevocations();
+        revocations.revoke("jti-1", inOneHour());
+
+        assertThat(revocations.isRevoked("jti-1")).isTrue();
+        assertThat(revocations.isRevoked("jti-2")).isFalse();
+    }
+
+    @Test
+    void alreadyExpiredTokensAreNotKept() {
+        TokenRevocations revocations = new TokenRevocations();
+        revocations.revoke("jti-1", System.currentTimeMillis() - 1);
+
+        assertThat(revocations.isRevoked("jti-1")).isFalse();
+        assertThat(revocations.size()).isZero();
+    }
+
+    @Test
+    void purgeDropsExpiredEntriesOnly() throws InterruptedException {
+        TokenRevocations revocations = new TokenRevocations();
+        revocations.revoke("short", System.currentTimeMillis() + 50);
+        revocations.revoke("long", inOneHour());
+        Thread.sleep(100);
+
+        revocations.purgeExpired();
+
+        assertThat(revocations.size()).isEqualTo(1);
+        assertThat(revocations.isRevoked("short")).isFalse();
+        assertThat(revocations.isRevoked("long")).isTrue();
+    }
+
+    @Test
+    void growingPastTheFilterCapacityKeepsEveryRevocation() {
+        TokenRevocations revocations = new TokenRevocations();
+        String[] ids = new String[5000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            revocations.revoke(ids[i], inOneHour());
+        }
+
+        assertThat(revocations.size()).isEqualTo(ids.length);
+        for (String id : ids) {
+            assertThat(revocations.isRevoked(id)).as(id).isTrue();
+        }
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+        int capacity = 10_000;
+        TokenRevocations.BloomFilter bloom = new TokenRevocations.BloomFilter(capacity);
+        for (int i = 0; i < capacity; i++) {
+            bloom.add("added-" + i);
+        }
+
+        for (int i = 0; i < capacity; i++) {
+            assertThat(bloom.mightContain("added-" + i)).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (bloom.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+        // ~1% expected at capacity; 3% leaves room for the hash distribution of these keys
+        assertThat(falsePositives).isLessThan(capacity * 3 / 100);
+    }
+}
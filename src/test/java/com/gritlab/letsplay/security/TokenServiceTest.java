@@ -0,0 +1,140 @@
+package com.gritlab.letsplay.security;
+
+import com.gritlab.letsplay.exception.GlobalExceptionHandler.UnauthorizedException;
+import com.gritlab.letsplay.model.RefreshToken;
+import com.gritlab.letsplay.model.RevokedToken;
+import com.gritlab.letsplay.model.User;
+import com.gritlab.letsplay.repository.UserRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresh token rotation, reuse detection and logout, against mongo-java-server (in-memory MongoDB stand-in)
+ * with real ES256 tokens: what TokenService stores is what JwtTokenVerifier sees.
+ */
+class TokenServiceTest {
+
+    private static MongoServer server;
+    private static MongoClient client;
+
+    private MongoTemplate mongoTemplate;
+    private TokenRevocations revocations;
+    private JwtTokenVerifier verifier;
+    private TokenService tokenService;
+    private User user;
+
+    @BeforeAll
+    static void startMongo() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = new MongoTemplate(client, "tokens");
+        mongoTemplate.getDb().drop();
+
+        JwtKeyRing keyRing = new JwtKeyRing(Base64.getEncoder().encodeToString(new byte[32]));
+        Instant now = Instant.now();
+        keyRing.load(List.of(keyRing.generateKey(now, now.plus(Duration.ofDays(1)))));
+
+        user = new User();
+        user.setId("65f1c0ffee00000000000001");
+        user.setEmail("ann@example.com");
+        user.setRole("user");
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        revocations = new TokenRevocations();
+        verifier = new JwtTokenVerifier(keyRing, 1000, revocations, new SimpleMeterRegistry());
+        tokenService = new TokenService(mongoTemplate, userRepository,
+                new JwtTokenIssuer(keyRing, Duration.ofMinutes(15)), revocations,
+                Duration.ofDays(7), Duration.ofSeconds(30));
+    }
+
+    // -------------------------- Rotation ------------------------------------------------- //
+    @Test
+    void refreshRotatesTheRefreshToken() {
+        TokenService.TokenPair login = tokenService.issue(user);
+
+        TokenService.TokenPair refreshed = tokenService.refresh(login.refreshToken());
+
+        assertThat(refreshed.refreshToken()).isNotEqualTo(login.refreshToken());
+        assertThat(AuthenticatedUser.of(verifier.verify(refreshed.accessToken())).id()).isEqualTo(user.getId());
+        assertThat(tokenService.refresh(refreshed.refreshToken()).refreshToken()).isNotEqualTo(refreshed.refreshToken());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily() {
+        TokenService.TokenPair login = tokenService.issue(user);
+        TokenService.TokenPair otherSession = tokenService.issue(user);
+        TokenService.TokenPair refreshed = tokenService.refresh(login.refreshToken());
+
+        // The old token is presented again: it leaked, so the session it belongs to ends.
+        assertThatThrownBy(() -> tokenService.refresh(login.refreshToken())).isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> tokenService.refresh(refreshed.refreshToken())).isInstanceOf(UnauthorizedException.class);
+
+        // Other sessions of the same user are not affected.
+        assertThat(tokenService.refresh(otherSession.refreshToken())).isNotNull();
+    }
+
+    @Test
+    void unknownRefreshTokenIsRejected() {
+        assertThatThrownBy(() -> tokenService.refresh("not-a-token")).isInstanceOf(UnauthorizedException.class);
+    }
+
+    // -------------------------- Logout ------------------------------------------------- //
+    @Test
+    void logoutRevokesTheAccessTokenForTheVerifier() {
+        TokenService.TokenPair login = tokenService.issue(user);
+        // Verified once, so the token is in the verification cache: revocation must apply to cached tokens too.
+        AuthenticatedUser principal = AuthenticatedUser.of(verifier.verify(login.accessToken()));
+
+        tokenService.logout(principal, login.refreshToken());
+
+        assertThatThrownBy(() -> verifier.verify(login.accessToken())).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> tokenService.refresh(login.refreshToken())).isInstanceOf(UnauthorizedException.class);
+        // Persisted for the other nodes, which load it on their next revocation sync
+        assertThat(mongoTemplate.findById(principal.tokenId(), RevokedToken.class)).isNotNull();
+    }
+
+    @Test
+    void revokeAllForUserEndsEverySession() {
+        TokenService.TokenPair first = tokenService.issue(user);
+        TokenService.TokenPair second = tokenService.issue(user);
+
+        tokenService.revokeAllForUser(user.getId());
+
+        assertThat(mongoTemplate.findAll(RefreshToken.class)).isEmpty();
+        assertThatThrownBy(() -> tokenService.refresh(first.refreshToken())).isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> tokenService.refresh(second.refreshToken())).isInstanceOf(UnauthorizedException.class);
+    }
+}